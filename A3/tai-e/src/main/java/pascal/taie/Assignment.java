@@ -22,7 +22,12 @@
 
 package pascal.taie;
 
+import pascal.taie.analysis.MethodAnalysisDriver;
+import pascal.taie.config.PlanConfig;
+
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -31,14 +36,25 @@ import java.util.List;
  */
 public class Assignment {
 
+    private static final String PLAN_FILE = "plan.yml";
+
     public static void main(String[] args) {
-        if (args.length > 0) {
+        if (args.length > 2 && args[0].equals("-j")) {
+            // run the method analyses of the plan on given number of threads
+            int threads = Integer.parseInt(args[1]);
+            List<String> argList = new ArrayList<>();
+            argList.add("-pp");
+            argList.addAll(Arrays.asList(args).subList(2, args.length));
+            Main.buildWorld(argList.toArray(new String[0]));
+            MethodAnalysisDriver.runPlan(
+                    PlanConfig.readConfigs(new File(PLAN_FILE)), threads);
+        } else if (args.length > 0) {
             List<String> argList = new ArrayList<>();
-            Collections.addAll(argList, "-pp", "-p", "plan.yml");
+            Collections.addAll(argList, "-pp", "-p", PLAN_FILE);
             Collections.addAll(argList, args);
             Main.main(argList.toArray(new String[0]));
         } else {
-            System.out.println("Usage: -cp <CLASS_PATH> -m <CLASS_NAME>");
+            System.out.println("Usage: [-j <THREADS>] -cp <CLASS_PATH> -m <CLASS_NAME>");
         }
     }
 }
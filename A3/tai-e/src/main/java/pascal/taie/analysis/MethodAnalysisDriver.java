@@ -0,0 +1,298 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.PlanConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a group of method analyses over many methods on a fork-join pool.
+ * <p>
+ * All analyses of a method are run by the same task, in an order that
+ * respects their dependencies, e.g., deadcode is run after constprop and
+ * livevar on the same IR. Thus, each {@link IR} is only accessed by one
+ * thread at a time, and {@link IR#storeResult} needs no further
+ * synchronization, while different methods are analyzed in parallel.
+ * The analyses themselves must not keep per-method state in their fields.
+ * <p>
+ * {@link #runPlan(List, int)} runs an analysis plan with this driver,
+ * which is used by {@link pascal.taie.Assignment} when the number of
+ * threads is given.
+ */
+public class MethodAnalysisDriver {
+
+    private static final Logger logger = LogManager.getLogger(MethodAnalysisDriver.class);
+
+    /**
+     * Maximum number of methods analyzed by a task without forking.
+     * Running all analyses on a method costs much more than forking
+     * a task, thus each method is analyzed by its own task.
+     */
+    private static final int THRESHOLD = 1;
+
+    /**
+     * File of the analysis configurations, bundled with Tai-e.
+     */
+    private static final String ANALYSES_FILE = "tai-e-analyses.yml";
+
+    /**
+     * Analyses sorted by dependencies.
+     */
+    private final List<MethodAnalysis> analyses;
+
+    /**
+     * Required analyses that are not run by this driver. Their results
+     * must have been stored in the IRs before running this driver.
+     */
+    private final Set<String> externalRequires = new HashSet<>();
+
+    private final int parallelism;
+
+    /**
+     * @param analyses    the analyses to run
+     * @param requires    maps the ID of each analysis to the IDs of the
+     *                    analyses it requires on the same IR
+     * @param parallelism number of worker threads
+     */
+    public MethodAnalysisDriver(Collection<? extends MethodAnalysis> analyses,
+                                Map<String, ? extends Collection<String>> requires,
+                                int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "parallelism must be positive, given: " + parallelism);
+        }
+        Map<String, MethodAnalysis> byId = new LinkedHashMap<>();
+        analyses.forEach(a -> byId.put(a.getId(), a));
+        requires.values().forEach(ids -> ids.forEach(id -> {
+            if (!byId.containsKey(id)) {
+                externalRequires.add(id);
+            }
+        }));
+        this.analyses = new ArrayList<>(byId.size());
+        Set<String> visited = new HashSet<>();
+        Set<String> visiting = new HashSet<>();
+        byId.keySet().forEach(id -> sort(id, byId, requires, visited, visiting));
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Runs given analysis plan, where the method analyses are run in
+     * parallel by a driver, and then the program analyses (e.g.,
+     * {@link ResultProcessor}) are run in order of the plan.
+     * The plan lists each analysis after the analyses it requires,
+     * thus each method analysis is run after the method analyses
+     * preceding it in the plan.
+     */
+    public static void runPlan(List<PlanConfig> plan, int parallelism) {
+        Map<String, AnalysisConfig> configs = readAnalysisConfigs();
+        List<MethodAnalysis> methodAnalyses = new ArrayList<>();
+        List<ProgramAnalysis> programAnalyses = new ArrayList<>();
+        Map<String, List<String>> requires = new LinkedHashMap<>();
+        for (PlanConfig planConfig : plan) {
+            AnalysisConfig config = configs.get(planConfig.getId());
+            if (config == null) {
+                throw new AnalysisException("Analysis " + planConfig.getId() +
+                        " is not found in " + ANALYSES_FILE);
+            }
+            Analysis analysis = newAnalysis(new AnalysisConfig(
+                    config.getDescription(), config.getAnalysisClass(),
+                    config.getId(), List.of(), planConfig.getOptions()));
+            if (analysis instanceof MethodAnalysis methodAnalysis) {
+                requires.put(analysis.getId(), methodAnalyses.stream()
+                        .map(MethodAnalysis::getId)
+                        .toList());
+                methodAnalyses.add(methodAnalysis);
+            } else {
+                programAnalyses.add((ProgramAnalysis) analysis);
+            }
+        }
+        new MethodAnalysisDriver(methodAnalyses, requires, parallelism)
+                .analyzeApplicationMethods();
+        for (ProgramAnalysis analysis : programAnalyses) {
+            Object result = analysis.analyze();
+            if (result != null) {
+                World.get().storeResult(analysis.getId(), result);
+            }
+        }
+    }
+
+    /**
+     * @return map from analysis ID to configuration of the analyses
+     * in {@link #ANALYSES_FILE}.
+     */
+    private static Map<String, AnalysisConfig> readAnalysisConfigs() {
+        try (InputStream content = MethodAnalysisDriver.class
+                .getClassLoader().getResourceAsStream(ANALYSES_FILE)) {
+            if (content == null) {
+                throw new AnalysisException(ANALYSES_FILE + " is not found");
+            }
+            Map<String, AnalysisConfig> configs = new LinkedHashMap<>();
+            AnalysisConfig.parseConfigs(content)
+                    .forEach(c -> configs.put(c.getId(), c));
+            return configs;
+        } catch (IOException e) {
+            throw new AnalysisException("Failed to read " + ANALYSES_FILE, e);
+        }
+    }
+
+    private static Analysis newAnalysis(AnalysisConfig config) {
+        try {
+            return (Analysis) Class.forName(config.getAnalysisClass())
+                    .getConstructor(AnalysisConfig.class)
+                    .newInstance(config);
+        } catch (ReflectiveOperationException e) {
+            throw new AnalysisException("Failed to create analysis " +
+                    config.getId(), e);
+        }
+    }
+
+    /**
+     * Appends the analysis of given ID to {@link #analyses} after
+     * the analyses it requires.
+     */
+    private void sort(String id, Map<String, MethodAnalysis> byId,
+                      Map<String, ? extends Collection<String>> requires,
+                      Set<String> visited, Set<String> visiting) {
+        if (!byId.containsKey(id) || visited.contains(id)) {
+            return;
+        }
+        if (!visiting.add(id)) {
+            throw new AnalysisException("Cyclic dependencies among analyses: "
+                    + visiting);
+        }
+        Collection<String> required = requires.get(id);
+        if (required != null) {
+            required.forEach(r -> sort(r, byId, requires, visited, visiting));
+        }
+        visiting.remove(id);
+        visited.add(id);
+        analyses.add(byId.get(id));
+    }
+
+    /**
+     * @return the analyses in the order they are run on each method.
+     */
+    public List<MethodAnalysis> getAnalyses() {
+        return analyses;
+    }
+
+    /**
+     * Runs the analyses over the non-abstract, non-native methods
+     * of the application classes.
+     */
+    public void analyzeApplicationMethods() {
+        analyze(World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .toList());
+    }
+
+    /**
+     * Runs the analyses over given methods, and stores the results
+     * in the IRs of the methods.
+     */
+    public void analyze(List<JMethod> methods) {
+        // build the IRs beforehand, so that the tasks only read
+        // the shared state of the frontend
+        methods.forEach(JMethod::getIR);
+        logger.info("Running {} on {} methods with {} threads",
+                analyses.stream().map(MethodAnalysis::getId).toList(),
+                methods.size(), parallelism);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new AnalysisTask(methods, 0, methods.size()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void analyze(JMethod method) {
+        IR ir = method.getIR();
+        for (String id : externalRequires) {
+            if (ir.getResult(id) == null) {
+                throw new AnalysisException("Result of " + id +
+                        " is required but absent for " + method);
+            }
+        }
+        for (MethodAnalysis analysis : analyses) {
+            Object result = analysis.analyze(ir);
+            if (result != null) {
+                ir.storeResult(analysis.getId(), result);
+            }
+        }
+    }
+
+    /**
+     * Analyzes methods[from, to), and forks sub-tasks for the halves
+     * of the range when it is large.
+     */
+    private class AnalysisTask extends RecursiveAction {
+
+        private final List<JMethod> methods;
+
+        private final int from;
+
+        private final int to;
+
+        private AnalysisTask(List<JMethod> methods, int from, int to) {
+            this.methods = methods;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; ++i) {
+                    analyze(methods.get(i));
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new AnalysisTask(methods, from, mid),
+                        new AnalysisTask(methods, mid, to));
+            }
+        }
+    }
+}
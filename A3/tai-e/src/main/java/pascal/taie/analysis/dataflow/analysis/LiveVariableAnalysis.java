@@ -22,16 +22,17 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.dataflow.fact.BitSetFact;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
-import pascal.taie.ir.exp.LValue;
 import pascal.taie.ir.exp.RValue;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Stmt;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+
 /**
  * Implementation of classic live variable analysis.
  */
@@ -40,8 +41,15 @@ public class LiveVariableAnalysis extends
 
     public static final String ID = "livevar";
 
+    /**
+     * Whether to represent the facts by dense bit vectors over the
+     * indexes of variables.
+     */
+    private final boolean bitVector;
+
     public LiveVariableAnalysis(AnalysisConfig config) {
         super(config);
+        bitVector = getOptions().getBooleanOrDefault("bit-vector", false);
     }
 
     @Override
@@ -52,13 +60,19 @@ public class LiveVariableAnalysis extends
     @Override
     public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
         // TODO - finish me
-        return new SetFact<>();
+        return newFact();
     }
 
     @Override
     public SetFact<Var> newInitialFact() {
         // TODO - finish me
-        return new SetFact<>();
+        return newFact();
+    }
+
+    private SetFact<Var> newFact() {
+        return bitVector ?
+                new BitSetFact<>((v, i) -> v.getMethod().getIR().getVar(i)) :
+                new SetFact<>();
     }
 
     @Override
@@ -70,25 +84,16 @@ public class LiveVariableAnalysis extends
     @Override
     public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
         // TODO - finish me
-        boolean changed;
-        SetFact<Var> newIn = out.copy();
-        Optional<LValue> def = stmt.getDef();
-        List<RValue> use = stmt.getUses();
-
-        if(!def.isEmpty()) {
-            LValue value = def.get();
-            if (value instanceof Var) {
-                newIn.remove((Var)value);
-            }
-        }
-        for(RValue value: use) {
-            if (value instanceof Var) {
-                newIn.add((Var) value);
+        List<Var> kill = stmt.getDef()
+                .filter(def -> def instanceof Var)
+                .map(def -> List.of((Var) def))
+                .orElse(List.of());
+        List<Var> gen = new ArrayList<>();
+        for (RValue use : stmt.getUses()) {
+            if (use instanceof Var var) {
+                gen.add(var);
             }
         }
-
-        changed = !newIn.equals(in);
-        in.set(newIn);
-        return changed;
+        return in.setGenKill(out, kill, gen);
     }
 }
@@ -0,0 +1,359 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation.canHoldInt;
+import static pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation.evaluate;
+
+/**
+ * Sparse conditional constant propagation without SSA form.
+ * <p>
+ * Each definition of an int variable (including the implicit definitions
+ * of parameters at the entry) holds one lattice value. The def-use chains
+ * are obtained from reaching definitions, which are computed once by bit
+ * vectors. Then the values are propagated only along the def-use chains,
+ * and statements are only evaluated after they become reachable via
+ * executable CFG edges: the branches of {@link If} and {@link SwitchStmt}
+ * whose conditions are constants are not followed, and the definitions
+ * in the code not executed do not contribute to the values of their uses.
+ * <p>
+ * The {@link CPFact}s of statements are not stored by the solver, and
+ * the result computes them from the values of reaching definitions when
+ * they are queried.
+ */
+class SparseConstantPropagation {
+
+    private final ConstantPropagation cp;
+
+    private final CFG<Stmt> cfg;
+
+    /**
+     * Nodes of the CFG, indexed by their IDs in this solver.
+     */
+    private final List<Stmt> nodes = new ArrayList<>();
+
+    private final Map<Stmt, Integer> nodeIds = new HashMap<>();
+
+    /**
+     * Variables defined by the definitions, indexed by definition IDs.
+     */
+    private final List<Var> defVars = new ArrayList<>();
+
+    /**
+     * Maps each statement which defines an int variable to its definition ID.
+     */
+    private final Map<Stmt, Integer> stmtDefs = new HashMap<>();
+
+    private final Map<Var, BitSet> varDefs = new HashMap<>();
+
+    /**
+     * Definitions of the parameters at the entry.
+     */
+    private final BitSet paramDefs = new BitSet();
+
+    /**
+     * Definitions reaching each node, indexed by node IDs.
+     */
+    private BitSet[] reachingDefs;
+
+    /**
+     * Statements that use each definition, indexed by definition IDs.
+     */
+    private List<Set<Stmt>> defUses;
+
+    /**
+     * Lattice values of the definitions, indexed by definition IDs.
+     */
+    private Value[] values;
+
+    private final Set<Stmt> executableNodes = new HashSet<>();
+
+    private final Set<Edge<Stmt>> executableEdges = new HashSet<>();
+
+    SparseConstantPropagation(ConstantPropagation cp, CFG<Stmt> cfg) {
+        this.cp = cp;
+        this.cfg = cfg;
+    }
+
+    DataflowResult<Stmt, CPFact> solve() {
+        collectDefs();
+        computeReachingDefs();
+        buildDefUses();
+        SparseResult result = new SparseResult();
+        propagate(result);
+        return result;
+    }
+
+    private void collectDefs() {
+        for (Var param : cfg.getIR().getParams()) {
+            if (canHoldInt(param)) {
+                paramDefs.set(addDef(param));
+            }
+        }
+        for (Stmt node : cfg) {
+            nodeIds.put(node, nodes.size());
+            nodes.add(node);
+            Var var = getDefVar(node);
+            if (var != null) {
+                stmtDefs.put(node, addDef(var));
+            }
+        }
+    }
+
+    private int addDef(Var var) {
+        int def = defVars.size();
+        defVars.add(var);
+        varDefs.computeIfAbsent(var, v -> new BitSet()).set(def);
+        return def;
+    }
+
+    /**
+     * @return the int variable whose value is updated by given statement
+     * in {@link ConstantPropagation#transferNode}, or null if there is none.
+     */
+    private static Var getDefVar(Stmt stmt) {
+        if (!stmt.getUses().isEmpty() &&
+                stmt.getDef().isPresent() &&
+                stmt.getDef().get() instanceof Var var &&
+                canHoldInt(var)) {
+            return var;
+        }
+        return null;
+    }
+
+    private void computeReachingDefs() {
+        reachingDefs = new BitSet[nodes.size()];
+        Deque<Stmt> workList = new ArrayDeque<>();
+        for (Stmt node : nodes) {
+            reachingDefs[nodeIds.get(node)] = new BitSet();
+            if (!cfg.isEntry(node)) {
+                workList.add(node);
+            }
+        }
+        reachingDefs[nodeIds.get(cfg.getEntry())].or(paramDefs);
+        Set<Stmt> pending = new HashSet<>(workList);
+        while (!workList.isEmpty()) {
+            Stmt node = workList.poll();
+            pending.remove(node);
+            BitSet in = new BitSet();
+            for (Stmt pred : cfg.getPredsOf(node)) {
+                in.or(getReachingDefsOut(pred));
+            }
+            int id = nodeIds.get(node);
+            if (!in.equals(reachingDefs[id])) {
+                reachingDefs[id] = in;
+                for (Stmt succ : cfg.getSuccsOf(node)) {
+                    if (pending.add(succ)) {
+                        workList.add(succ);
+                    }
+                }
+            }
+        }
+    }
+
+    private BitSet getReachingDefsOut(Stmt node) {
+        BitSet in = reachingDefs[nodeIds.get(node)];
+        Integer def = stmtDefs.get(node);
+        if (def == null) {
+            return in;
+        }
+        BitSet out = (BitSet) in.clone();
+        out.andNot(varDefs.get(defVars.get(def)));
+        out.set(def);
+        return out;
+    }
+
+    private void buildDefUses() {
+        defUses = new ArrayList<>(defVars.size());
+        for (int i = 0; i < defVars.size(); ++i) {
+            defUses.add(new LinkedHashSet<>());
+        }
+        for (Stmt node : nodes) {
+            BitSet reaching = reachingDefs[nodeIds.get(node)];
+            for (Var var : getUsedVars(node)) {
+                BitSet defs = (BitSet) varDefs.get(var).clone();
+                defs.and(reaching);
+                defs.stream().forEach(def -> defUses.get(def).add(node));
+            }
+        }
+    }
+
+    /**
+     * @return the int variables which are used by given statement and
+     * have definitions.
+     */
+    private Set<Var> getUsedVars(Stmt stmt) {
+        Set<Var> vars = new LinkedHashSet<>();
+        for (RValue use : stmt.getUses()) {
+            if (use instanceof Var var && varDefs.containsKey(var)) {
+                vars.add(var);
+            }
+        }
+        return vars;
+    }
+
+    private void propagate(SparseResult result) {
+        values = new Value[defVars.size()];
+        for (int def = 0; def < values.length; ++def) {
+            values[def] = paramDefs.get(def) ? Value.getNAC() : Value.getUndef();
+        }
+        Deque<Stmt> workList = new ArrayDeque<>();
+        Set<Stmt> pending = new HashSet<>();
+        executableNodes.add(cfg.getEntry());
+        workList.add(cfg.getEntry());
+        pending.add(cfg.getEntry());
+        while (!workList.isEmpty()) {
+            Stmt node = workList.poll();
+            pending.remove(node);
+            result.countNodeVisit();
+            CPFact in = getUseFact(node);
+            Integer def = stmtDefs.get(node);
+            if (def != null) {
+                List<RValue> uses = node.getUses();
+                Value value = cp.meetValue(values[def],
+                        evaluate(uses.get(uses.size() - 1), in));
+                if (!value.equals(values[def])) {
+                    values[def] = value;
+                    for (Stmt use : defUses.get(def)) {
+                        if (executableNodes.contains(use) && pending.add(use)) {
+                            workList.add(use);
+                        }
+                    }
+                }
+            }
+            for (Edge<Stmt> edge : cfg.getOutEdgesOf(node)) {
+                if (isExecutable(node, edge, in) && executableEdges.add(edge)) {
+                    Stmt target = edge.getTarget();
+                    if (executableNodes.add(target) && pending.add(target)) {
+                        workList.add(target);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a fact containing the values of the variables used by given
+     * statement, which is sufficient for evaluating the statement.
+     */
+    private CPFact getUseFact(Stmt stmt) {
+        CPFact fact = new CPFact();
+        BitSet reaching = reachingDefs[nodeIds.get(stmt)];
+        for (Var var : getUsedVars(stmt)) {
+            Value value = Value.getUndef();
+            BitSet defs = varDefs.get(var);
+            for (int def = defs.nextSetBit(0); def >= 0; def = defs.nextSetBit(def + 1)) {
+                if (reaching.get(def)) {
+                    value = cp.meetValue(value, values[def]);
+                }
+            }
+            fact.update(var, value);
+        }
+        return fact;
+    }
+
+    /**
+     * @return false if given edge is a branch not taken by given statement,
+     * as its condition is a constant, otherwise true.
+     */
+    private static boolean isExecutable(Stmt node, Edge<Stmt> edge, CPFact in) {
+        if (edge.isExceptional()) {
+            return true;
+        }
+        if (node instanceof If ifStmt) {
+            Value cond = evaluate(ifStmt.getCondition(), in);
+            if (cond.isConstant()) {
+                Edge.Kind taken = cond.getConstant() > 0 ?
+                        Edge.Kind.IF_TRUE : Edge.Kind.IF_FALSE;
+                return edge.getKind() == taken;
+            }
+        } else if (node instanceof SwitchStmt switchStmt) {
+            Value value = in.get(switchStmt.getVar());
+            if (value.isConstant()) {
+                int constant = value.getConstant();
+                if (switchStmt.getCaseValues().contains(constant)) {
+                    return edge.isSwitchCase() && edge.getCaseValue() == constant;
+                } else {
+                    return edge.getKind() == Edge.Kind.SWITCH_DEFAULT;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Result which computes the {@link CPFact}s of statements on demand.
+     */
+    private class SparseResult extends DataflowResult<Stmt, CPFact> {
+
+        @Override
+        public CPFact getInFact(Stmt stmt) {
+            CPFact in = super.getInFact(stmt);
+            if (in == null && nodeIds.containsKey(stmt)) {
+                in = new CPFact();
+                BitSet reaching = reachingDefs[nodeIds.get(stmt)];
+                for (int def = reaching.nextSetBit(0); def >= 0;
+                     def = reaching.nextSetBit(def + 1)) {
+                    Var var = defVars.get(def);
+                    in.update(var, cp.meetValue(in.get(var), values[def]));
+                }
+                setInFact(stmt, in);
+            }
+            return in;
+        }
+
+        @Override
+        public CPFact getOutFact(Stmt stmt) {
+            CPFact out = super.getOutFact(stmt);
+            if (out == null && nodeIds.containsKey(stmt)) {
+                out = getInFact(stmt).copy();
+                Integer def = stmtDefs.get(stmt);
+                if (def != null) {
+                    out.update(defVars.get(def), values[def]);
+                }
+                setOutFact(stmt, out);
+            }
+            return out;
+        }
+    }
+}
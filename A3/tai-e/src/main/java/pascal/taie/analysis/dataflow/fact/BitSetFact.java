@@ -0,0 +1,303 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Indexable;
+import pascal.taie.util.collection.CollectionUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Set-like data-flow facts represented by dense bit vectors, where each
+ * element is represented by the bit at its index. The set operations
+ * on two bit-vector facts work on whole words.
+ * <p>
+ * The elements are only needed when the fact is iterated or printed,
+ * and they are obtained by the resolver from an element of this fact
+ * (i.e., an element of the same index space) and an index.
+ * Bit-vector facts do not have the backing set of {@link SetFact},
+ * and they are never equal to plain {@link SetFact}s.
+ *
+ * @param <E> type of elements
+ */
+public class BitSetFact<E extends Indexable> extends SetFact<E> {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final BiFunction<E, Integer, E> resolver;
+
+    private long[] words = EMPTY;
+
+    /**
+     * An element which has been in this fact, used by the resolver.
+     */
+    private E sample;
+
+    /**
+     * @param resolver given an element and an index, returns the element
+     *                 of the index in the same index space.
+     */
+    public BitSetFact(BiFunction<E, Integer, E> resolver) {
+        super(Set.of());
+        this.resolver = resolver;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        int i = e.getIndex();
+        int w = i >>> 6;
+        return w < words.length && (words[w] & (1L << i)) != 0;
+    }
+
+    @Override
+    public boolean add(E e) {
+        int i = e.getIndex();
+        int w = i >>> 6;
+        ensureCapacity(w + 1);
+        long old = words[w];
+        words[w] = old | (1L << i);
+        if (sample == null) {
+            sample = e;
+        }
+        return words[w] != old;
+    }
+
+    @Override
+    public boolean remove(E e) {
+        int i = e.getIndex();
+        int w = i >>> 6;
+        if (w >= words.length) {
+            return false;
+        }
+        long old = words[w];
+        words[w] = old & ~(1L << i);
+        return words[w] != old;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<E> filter) {
+        boolean changed = false;
+        for (E e : stream().toList()) {
+            if (filter.test(e)) {
+                changed |= remove(e);
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean union(SetFact<E> other) {
+        if (!(other instanceof BitSetFact<E> that)) {
+            boolean changed = false;
+            for (E e : other.stream().toList()) {
+                changed |= add(e);
+            }
+            return changed;
+        }
+        ensureCapacity(that.words.length);
+        boolean changed = false;
+        for (int w = 0; w < that.words.length; ++w) {
+            long old = words[w];
+            words[w] = old | that.words[w];
+            changed |= words[w] != old;
+        }
+        adoptSample(that);
+        return changed;
+    }
+
+    @Override
+    public BitSetFact<E> unionWith(SetFact<E> other) {
+        BitSetFact<E> result = copy();
+        result.union(other);
+        return result;
+    }
+
+    @Override
+    public boolean intersect(SetFact<E> other) {
+        boolean changed = false;
+        if (other instanceof BitSetFact<E> that) {
+            for (int w = 0; w < words.length; ++w) {
+                long old = words[w];
+                words[w] = w < that.words.length ? old & that.words[w] : 0;
+                changed |= words[w] != old;
+            }
+        } else {
+            for (E e : stream().toList()) {
+                if (!other.contains(e)) {
+                    changed |= remove(e);
+                }
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public BitSetFact<E> intersectWith(SetFact<E> other) {
+        BitSetFact<E> result = copy();
+        result.intersect(other);
+        return result;
+    }
+
+    @Override
+    public void set(SetFact<E> other) {
+        if (other instanceof BitSetFact<E> that) {
+            words = that.words.clone();
+            adoptSample(that);
+        } else {
+            super.set(other);
+        }
+    }
+
+    /**
+     * Sets this fact to (other - kill) ∪ gen in place.
+     */
+    @Override
+    public boolean setGenKill(SetFact<E> other, Collection<E> kill,
+                              Collection<E> gen) {
+        if (!(other instanceof BitSetFact<E> that)) {
+            return super.setGenKill(other, kill, gen);
+        }
+        int length = that.words.length;
+        for (E e : gen) {
+            length = Math.max(length, (e.getIndex() >>> 6) + 1);
+        }
+        ensureCapacity(length);
+        boolean changed = false;
+        for (int w = 0; w < words.length; ++w) {
+            long word = w < that.words.length ? that.words[w] : 0;
+            for (E e : kill) {
+                if (e.getIndex() >>> 6 == w) {
+                    word &= ~(1L << e.getIndex());
+                }
+            }
+            for (E e : gen) {
+                if (e.getIndex() >>> 6 == w) {
+                    word |= 1L << e.getIndex();
+                }
+            }
+            changed |= words[w] != word;
+            words[w] = word;
+        }
+        adoptSample(that);
+        if (sample == null && !gen.isEmpty()) {
+            sample = gen.iterator().next();
+        }
+        return changed;
+    }
+
+    @Override
+    public BitSetFact<E> copy() {
+        BitSetFact<E> copy = new BitSetFact<>(resolver);
+        copy.words = words.clone();
+        copy.sample = sample;
+        return copy;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Stream<E> stream() {
+        return indexes().mapToObj(i -> resolver.apply(sample, i));
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * @return the indexes of the elements in this fact, in ascending order.
+     */
+    private IntStream indexes() {
+        return IntStream.range(0, words.length << 6)
+                .filter(i -> (words[i >>> 6] & (1L << i)) != 0);
+    }
+
+    private void ensureCapacity(int length) {
+        if (words.length < length) {
+            words = Arrays.copyOf(words, Math.max(length, words.length * 2));
+        }
+    }
+
+    private void adoptSample(BitSetFact<E> other) {
+        if (sample == null) {
+            sample = other.sample;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BitSetFact<?> that)) {
+            return false;
+        }
+        int length = Math.max(words.length, that.words.length);
+        for (int w = 0; w < length; ++w) {
+            long x = w < words.length ? words[w] : 0;
+            long y = w < that.words.length ? that.words[w] : 0;
+            if (x != y) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i : indexes().toArray()) {
+            hash = 31 * hash + i;
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return CollectionUtils.toString(stream().toList());
+    }
+}
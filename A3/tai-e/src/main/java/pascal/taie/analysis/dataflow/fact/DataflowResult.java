@@ -37,6 +37,11 @@ public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
 
     private final Map<Node, Fact> outFacts = new LinkedHashMap<>();
 
+    /**
+     * Number of node visits of the solver which computes this result.
+     */
+    private int nodeVisits = 0;
+
     /**
      * @return the flowing-in fact of given node.
      */
@@ -66,4 +71,27 @@ public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
     public void setOutFact(Node node, Fact fact) {
         outFacts.put(node, fact);
     }
+
+    /**
+     * @return the number of times the solver computed the facts of
+     * a node, which is useful for comparing solvers.
+     */
+    public int getNodeVisits() {
+        return nodeVisits;
+    }
+
+    /**
+     * Records one visit of a node by the solver.
+     */
+    public void countNodeVisit() {
+        ++nodeVisits;
+    }
+
+    /**
+     * Records given number of node visits by the solver, e.g., the
+     * visits of the nodes of a basic block that is processed at once.
+     */
+    public void countNodeVisits(int count) {
+        nodeVisits += count;
+    }
 }
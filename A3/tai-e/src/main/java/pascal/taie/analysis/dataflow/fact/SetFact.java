@@ -26,7 +26,6 @@ import pascal.taie.util.collection.CollectionUtils;
 import pascal.taie.util.collection.Sets;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -45,7 +44,17 @@ public class SetFact<E> {
     }
 
     public SetFact() {
-        this(Collections.emptySet());
+        this(Sets.newHybridSet());
+    }
+
+    /**
+     * Creates a fact backed by given set, which is used as is (unlike
+     * {@link #SetFact(Collection)}, which copies the elements). Subclasses
+     * that represent the elements by themselves pass an immutable empty
+     * set, so that no backing set is allocated for them.
+     */
+    protected SetFact(Set<E> set) {
+        this.set = set;
     }
 
     /**
@@ -127,11 +136,28 @@ public class SetFact<E> {
         union(other);
     }
 
+    /**
+     * Sets the content of this fact to (other - kill) ∪ gen.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean setGenKill(SetFact<E> other, Collection<E> kill,
+                              Collection<E> gen) {
+        SetFact<E> result = other.copy();
+        kill.forEach(result::remove);
+        gen.forEach(result::add);
+        if (result.equals(this)) {
+            return false;
+        }
+        set(result);
+        return true;
+    }
+
     /**
      * Creates and returns a copy of this fact.
      */
     public SetFact<E> copy() {
-        return new SetFact<>(this.set);
+        return new SetFact<>(Sets.newHybridSet(set));
     }
 
     /**
@@ -158,10 +184,12 @@ public class SetFact<E> {
         if (this == o) {
             return true;
         }
-        if (!(o instanceof SetFact<?> that)) {
+        // facts of subclasses (e.g., BitSetFact) keep their elements
+        // in other forms, and they are never equal to plain facts
+        if (o == null || getClass() != o.getClass()) {
             return false;
         }
-        return set.equals(that.set);
+        return set.equals(((SetFact<?>) o).set);
     }
 
     @Override
@@ -0,0 +1,309 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Work-list solver which works on basic blocks, i.e., maximal sequences
+ * of nodes that are connected by the only out edge of each node (except
+ * the last one) and the only in edge of each node (except the first one).
+ * <p>
+ * The solver only keeps the in and out facts of each block, and composes
+ * the transfer functions of the nodes within a block. The facts of the
+ * individual nodes are recomputed from the facts of their block when they
+ * are queried from the result for the first time. The blocks are processed
+ * in the same order as {@link WorkListSolver}. Each visit of a block is
+ * counted in the result as a visit of each of its nodes, so that the
+ * counts are comparable with the ones of the other solvers.
+ */
+class BlockWorkListSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    BlockWorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    protected DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
+        return new BlockResult<>(analysis, cfg);
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        BlockResult<Node, Fact> blockResult = (BlockResult<Node, Fact>) result;
+        BitSet pending = blockResult.getInitialWorkList();
+        while (!pending.isEmpty()) {
+            int i = pending.nextSetBit(0);
+            pending.clear(i);
+            Block<Node, Fact> block = blockResult.blocks.get(i);
+            Fact in = analysis.newInitialFact();
+            for (Block<Node, Fact> pred : block.preds) {
+                analysis.meetInto(pred.out, in);
+            }
+            block.in = in;
+            result.countNodeVisits(block.nodes.size());
+            Fact fact = in;
+            int last = block.nodes.size() - 1;
+            for (int j = 0; j < last; ++j) {
+                Fact out = analysis.newInitialFact();
+                analysis.transferNode(block.nodes.get(j), fact, out);
+                fact = out;
+            }
+            if (analysis.transferNode(block.nodes.get(last), fact, block.out)) {
+                block.succs.forEach(succ -> pending.set(succ.index));
+            }
+        }
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        BlockResult<Node, Fact> blockResult = (BlockResult<Node, Fact>) result;
+        BitSet pending = blockResult.getInitialWorkList();
+        while (!pending.isEmpty()) {
+            int i = pending.nextSetBit(0);
+            pending.clear(i);
+            Block<Node, Fact> block = blockResult.blocks.get(i);
+            Fact out = analysis.newInitialFact();
+            for (Block<Node, Fact> succ : block.succs) {
+                analysis.meetInto(succ.in, out);
+            }
+            block.out = out;
+            result.countNodeVisits(block.nodes.size());
+            Fact fact = out;
+            for (int j = block.nodes.size() - 1; j > 0; --j) {
+                Fact in = analysis.newInitialFact();
+                analysis.transferNode(block.nodes.get(j), in, fact);
+                fact = in;
+            }
+            if (analysis.transferNode(block.nodes.get(0), block.in, fact)) {
+                block.preds.forEach(pred -> pending.set(pred.index));
+            }
+        }
+    }
+
+    /**
+     * A basic block of CFG nodes together with its facts.
+     */
+    private static class Block<Node, Fact> {
+
+        private final List<Node> nodes = new ArrayList<>();
+
+        private final Set<Block<Node, Fact>> preds = new LinkedHashSet<>();
+
+        private final Set<Block<Node, Fact>> succs = new LinkedHashSet<>();
+
+        /**
+         * Position of this block in the solving order.
+         */
+        private int index;
+
+        private Fact in;
+
+        private Fact out;
+
+        /**
+         * Whether the facts of the nodes in this block have been computed.
+         */
+        private boolean materialized;
+    }
+
+    /**
+     * Data-flow result which stores the facts of blocks, and computes
+     * the facts of nodes on demand. The facts of adjacent nodes within
+     * a block are shared, i.e., the out fact of a node is the in fact of
+     * its successor in the same block.
+     */
+    private static class BlockResult<Node, Fact> extends DataflowResult<Node, Fact> {
+
+        private final DataflowAnalysis<Node, Fact> analysis;
+
+        private final CFG<Node> cfg;
+
+        /**
+         * Blocks in solving order.
+         */
+        private final List<Block<Node, Fact>> blocks;
+
+        private final Map<Node, Block<Node, Fact>> blockOf;
+
+        private BlockResult(DataflowAnalysis<Node, Fact> analysis, CFG<Node> cfg) {
+            this.analysis = analysis;
+            this.cfg = cfg;
+            blockOf = new HashMap<>(cfg.getNumberOfNodes() * 4 / 3 + 1);
+            blocks = buildBlocks();
+            for (Block<Node, Fact> block : blocks) {
+                if (analysis.isForward() && cfg.isEntry(block.nodes.get(0)) ||
+                        !analysis.isForward() && cfg.isExit(block.nodes.get(0))) {
+                    block.in = analysis.newBoundaryFact(cfg);
+                    block.out = analysis.newBoundaryFact(cfg);
+                } else {
+                    block.in = analysis.newInitialFact();
+                    block.out = analysis.newInitialFact();
+                }
+            }
+        }
+
+        /**
+         * @return the blocks of the CFG, sorted by the positions of their
+         * nodes in the order of {@link WorkListSolver}.
+         */
+        private List<Block<Node, Fact>> buildBlocks() {
+            List<Block<Node, Fact>> blocks = new ArrayList<>();
+            for (Node node : cfg) {
+                if (!blockOf.containsKey(node) && isLeader(node)) {
+                    blocks.add(buildBlock(node));
+                }
+            }
+            // nodes on cycles without leaders, which are unreachable
+            for (Node node : cfg) {
+                if (!blockOf.containsKey(node)) {
+                    blocks.add(buildBlock(node));
+                }
+            }
+            for (Block<Node, Fact> block : blocks) {
+                for (Node pred : cfg.getPredsOf(block.nodes.get(0))) {
+                    block.preds.add(blockOf.get(pred));
+                }
+                for (Node succ : cfg.getSuccsOf(block.nodes.get(block.nodes.size() - 1))) {
+                    block.succs.add(blockOf.get(succ));
+                }
+            }
+            List<Node> order = WorkListSolver.getPostOrder(cfg);
+            if (analysis.isForward()) {
+                Collections.reverse(order);
+            }
+            Map<Block<Node, Fact>, Integer> priorities = new HashMap<>();
+            for (int i = order.size() - 1; i >= 0; --i) {
+                priorities.put(blockOf.get(order.get(i)), i);
+            }
+            blocks.sort(Comparator.comparingInt(priorities::get));
+            for (int i = 0; i < blocks.size(); ++i) {
+                blocks.get(i).index = i;
+            }
+            return blocks;
+        }
+
+        private boolean isLeader(Node node) {
+            if (cfg.isEntry(node) || cfg.isExit(node)
+                    || cfg.getPredsOf(node).size() != 1) {
+                return true;
+            }
+            Node pred = cfg.getPredsOf(node).iterator().next();
+            return cfg.isEntry(pred) || cfg.getSuccsOf(pred).size() != 1;
+        }
+
+        private Block<Node, Fact> buildBlock(Node leader) {
+            Block<Node, Fact> block = new Block<>();
+            Node node = leader;
+            while (true) {
+                block.nodes.add(node);
+                blockOf.put(node, block);
+                if (cfg.isExit(node) || cfg.getSuccsOf(node).size() != 1) {
+                    break;
+                }
+                Node succ = cfg.getSuccsOf(node).iterator().next();
+                if (blockOf.containsKey(succ) || isLeader(succ)) {
+                    break;
+                }
+                node = succ;
+            }
+            return block;
+        }
+
+        /**
+         * @return the indexes of the blocks to be processed initially,
+         * i.e., all blocks except the ones of entry and exit nodes.
+         */
+        private BitSet getInitialWorkList() {
+            BitSet pending = new BitSet(blocks.size());
+            for (Block<Node, Fact> block : blocks) {
+                Node node = block.nodes.get(0);
+                if (!cfg.isEntry(node) && !cfg.isExit(node)) {
+                    pending.set(block.index);
+                }
+            }
+            return pending;
+        }
+
+        @Override
+        public Fact getInFact(Node node) {
+            materialize(node);
+            return super.getInFact(node);
+        }
+
+        @Override
+        public Fact getOutFact(Node node) {
+            materialize(node);
+            return super.getOutFact(node);
+        }
+
+        /**
+         * Computes and stores the facts of the nodes in the block of
+         * given node, if they have not been computed.
+         */
+        private void materialize(Node node) {
+            Block<Node, Fact> block = blockOf.get(node);
+            if (block == null || block.materialized) {
+                return;
+            }
+            block.materialized = true;
+            List<Node> nodes = block.nodes;
+            int last = nodes.size() - 1;
+            if (analysis.isForward()) {
+                Fact fact = block.in;
+                for (int i = 0; i < last; ++i) {
+                    Fact out = analysis.newInitialFact();
+                    analysis.transferNode(nodes.get(i), fact, out);
+                    setInFact(nodes.get(i), fact);
+                    setOutFact(nodes.get(i), out);
+                    fact = out;
+                }
+                setInFact(nodes.get(last), fact);
+                setOutFact(nodes.get(last), block.out);
+            } else {
+                Fact fact = block.out;
+                for (int i = last; i > 0; --i) {
+                    Fact in = analysis.newInitialFact();
+                    analysis.transferNode(nodes.get(i), in, fact);
+                    setInFact(nodes.get(i), in);
+                    setOutFact(nodes.get(i), fact);
+                    fact = in;
+                }
+                setInFact(nodes.get(0), block.in);
+                setOutFact(nodes.get(0), fact);
+            }
+        }
+    }
+}
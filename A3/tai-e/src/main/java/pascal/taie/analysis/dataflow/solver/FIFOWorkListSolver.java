@@ -0,0 +1,89 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Work-list solver which processes the nodes in first-in-first-out order.
+ * A node may be queued multiple times, so this solver is kept mainly for
+ * comparing the number of node visits with {@link WorkListSolver}.
+ */
+class FIFOWorkListSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    FIFOWorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        Queue<Node> workList = initWorkList(cfg);
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            Fact in = analysis.newInitialFact();
+            for (Node pred : cfg.getPredsOf(node)) {
+                analysis.meetInto(result.getOutFact(pred), in);
+            }
+            result.setInFact(node, in);
+            result.countNodeVisit();
+            if (analysis.transferNode(node, in, result.getOutFact(node))) {
+                workList.addAll(cfg.getSuccsOf(node));
+            }
+        }
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        Queue<Node> workList = initWorkList(cfg);
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            Fact out = analysis.newInitialFact();
+            for (Node succ : cfg.getSuccsOf(node)) {
+                analysis.meetInto(result.getInFact(succ), out);
+            }
+            result.setOutFact(node, out);
+            result.countNodeVisit();
+            if (analysis.transferNode(node, result.getInFact(node), out)) {
+                workList.addAll(cfg.getPredsOf(node));
+            }
+        }
+    }
+
+    /**
+     * @return a work-list of the nodes of cfg other than the entry and exit.
+     */
+    private static <Node> Queue<Node> initWorkList(CFG<Node> cfg) {
+        Queue<Node> workList = new ArrayDeque<>();
+        for (Node node : cfg) {
+            if (!cfg.isEntry(node) && !cfg.isExit(node)) {
+                workList.add(node);
+            }
+        }
+        return workList;
+    }
+}
@@ -25,6 +25,7 @@ package pascal.taie.analysis.dataflow.solver;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.ConfigException;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -46,7 +47,26 @@ public abstract class Solver<Node, Fact> {
      */
     public static <Node, Fact> Solver<Node, Fact> makeSolver(
             DataflowAnalysis<Node, Fact> analysis) {
-        return new WorkListSolver<>(analysis);
+        return makeSolver(analysis, null);
+    }
+
+    /**
+     * Static factory method to create a new solver of given kind.
+     *
+     * @param kind kind of solver, i.e., "worklist" (the default one when
+     *             kind is null), "fifo", or "block".
+     */
+    public static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, String kind) {
+        if (kind == null || kind.equals("worklist")) {
+            return new WorkListSolver<>(analysis);
+        } else if (kind.equals("fifo")) {
+            return new FIFOWorkListSolver<>(analysis);
+        } else if (kind.equals("block")) {
+            return new BlockWorkListSolver<>(analysis);
+        } else {
+            throw new ConfigException("Unexpected kind of data-flow solver: " + kind);
+        }
     }
 
     /**
@@ -66,7 +86,7 @@ public abstract class Solver<Node, Fact> {
      *
      * @return the initialized data-flow result
      */
-    private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
+    protected DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
         DataflowResult<Node, Fact> result = new DataflowResult<>();
         if (analysis.isForward()) {
             initializeForward(cfg, result);
@@ -26,8 +26,26 @@ import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Work-list solver which always processes the pending node that comes
+ * first in reverse postorder of the CFG (postorder for backward analyses),
+ * so that the facts of a node are computed after the ones of its
+ * predecessors (successors for backward analyses), except along back
+ * edges. Each node is in the work-list at most once.
+ */
 class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
     WorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
@@ -36,64 +54,128 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
     @Override
     protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
-        DataflowAnalysis<Node, Fact> analysisInstance = analysis;
-
-        List<Node> workList = new ArrayList<>();
-        for (Node node : cfg.getNodes()) {      // cfg.getNodes() will return all statements of a function
-            if(!(cfg.isEntry(node) || cfg.isExit(node))) {
-                workList.add(node);
-            }
-        }
-
-        while(workList.size() > 0) {
-            Node node = workList.get(0);
-            Fact newIn = analysisInstance.newInitialFact();
-
-            for(Node preNode: cfg.getPredsOf(node)) {
-                // newIn could be replaced by `result.getInFact(preNode)`, the original var,
-                // because in `IN[B] = U OUT[P]`, the OUT[P] is monotonically increasing, so even the newIn is not empty,
-                // the old value is must smaller than the new value, so it is no problem.
-                analysisInstance.meetInto(result.getOutFact(preNode), newIn);
+        List<Node> order = getPostOrder(cfg);
+        Collections.reverse(order);
+        WorkList<Node> workList = new WorkList<>(cfg, order);
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            Fact in = analysis.newInitialFact();
+            for (Node pred : cfg.getPredsOf(node)) {
+                analysis.meetInto(result.getOutFact(pred), in);
             }
-            result.setInFact(node, newIn);
-
-            boolean anyChange = analysisInstance.transferNode(node, result.getInFact(node), result.getOutFact(node));
-            if(anyChange) {
+            result.setInFact(node, in);
+            result.countNodeVisit();
+            if (analysis.transferNode(node, in, result.getOutFact(node))) {
                 workList.addAll(cfg.getSuccsOf(node));
             }
-
-            workList.remove(node);
         }
     }
 
     @Override
     protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
-        DataflowAnalysis<Node, Fact> analysisInstance = analysis;
-
-        List<Node> workList = new ArrayList<>();
-        for (Node node : cfg.getNodes()) {      // cfg.getNodes() will return all statements of a function
-            if(!(cfg.isEntry(node) || cfg.isExit(node))) {
-                workList.add(node);
+        WorkList<Node> workList = new WorkList<>(cfg, getPostOrder(cfg));
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            Fact out = analysis.newInitialFact();
+            for (Node succ : cfg.getSuccsOf(node)) {
+                analysis.meetInto(result.getInFact(succ), out);
+            }
+            result.setOutFact(node, out);
+            result.countNodeVisit();
+            if (analysis.transferNode(node, result.getInFact(node), out)) {
+                workList.addAll(cfg.getPredsOf(node));
             }
         }
+    }
 
-        while(workList.size() > 0) {
-            Node node = workList.get(0);
-            Fact newOut = analysisInstance.newInitialFact();
+    /**
+     * @return the nodes of cfg in postorder of depth-first search from
+     * the entry. The nodes unreachable from the entry are searched
+     * afterwards, and are placed after the reachable nodes.
+     */
+    static <Node> List<Node> getPostOrder(CFG<Node> cfg) {
+        List<Node> postOrder = new ArrayList<>(cfg.getNumberOfNodes());
+        Set<Node> visited = new HashSet<>();
+        searchPostOrder(cfg, cfg.getEntry(), visited, postOrder);
+        List<Node> unreachable = new ArrayList<>();
+        for (Node node : cfg) {
+            searchPostOrder(cfg, node, visited, unreachable);
+        }
+        postOrder.addAll(unreachable);
+        return postOrder;
+    }
 
-            for(Node preNode: cfg.getSuccsOf(node)) {
-                analysisInstance.meetInto(result.getInFact(preNode), newOut);
+    /**
+     * Iterative depth-first search, which appends the nodes
+     * reachable from root (and not visited yet) to postOrder.
+     */
+    private static <Node> void searchPostOrder(
+            CFG<Node> cfg, Node root, Set<Node> visited, List<Node> postOrder) {
+        if (!visited.add(root)) {
+            return;
+        }
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Iterator<Node>> succs = new ArrayDeque<>();
+        stack.push(root);
+        succs.push(cfg.getSuccsOf(root).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<Node> it = succs.peek();
+            if (it.hasNext()) {
+                Node succ = it.next();
+                if (visited.add(succ)) {
+                    stack.push(succ);
+                    succs.push(cfg.getSuccsOf(succ).iterator());
+                }
+            } else {
+                postOrder.add(stack.pop());
+                succs.pop();
             }
-            result.setOutFact(node, newOut);
+        }
+    }
 
-            boolean anyChange = analysisInstance.transferNode(node, result.getInFact(node), result.getOutFact(node));
-            if(anyChange) {
-                workList.addAll(cfg.getPredsOf(node));
+    /**
+     * Work-list of CFG nodes, which are prioritized by given order.
+     * The entry and exit nodes are only processed when they are added
+     * by {@link #addAll(Collection)}.
+     */
+    private static class WorkList<Node> {
+
+        private final List<Node> nodes;
+
+        private final Map<Node, Integer> priorities;
+
+        /**
+         * The priorities of the nodes in this work-list.
+         */
+        private final BitSet pending;
+
+        private WorkList(CFG<Node> cfg, List<Node> order) {
+            nodes = order;
+            priorities = new HashMap<>(order.size() * 4 / 3 + 1);
+            pending = new BitSet(order.size());
+            for (int i = 0; i < order.size(); ++i) {
+                Node node = order.get(i);
+                priorities.put(node, i);
+                if (!cfg.isEntry(node) && !cfg.isExit(node)) {
+                    pending.set(i);
+                }
             }
+        }
+
+        private boolean isEmpty() {
+            return pending.isEmpty();
+        }
 
-            workList.remove(node);
+        private Node poll() {
+            int i = pending.nextSetBit(0);
+            pending.clear(i);
+            return nodes.get(i);
+        }
+
+        private void addAll(Collection<Node> nodes) {
+            for (Node node : nodes) {
+                pending.set(priorities.get(node));
+            }
         }
     }
 }
@@ -0,0 +1,109 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis;
+
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.DeadCodeDetection;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.PlanConfig;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests that running the analyses by {@link MethodAnalysisDriver} in
+ * parallel gives the same dead code as running them serially by Tai-e.
+ */
+public class MethodAnalysisDriverTest {
+
+    private static final String DIR = "src/test/resources/dataflow/deadcode";
+
+    private static final List<PlanConfig> PLAN = List.of(
+            new PlanConfig("throw", new AnalysisOptions(Map.of(
+                    "exception", "explicit", "algorithm", "intra"))),
+            new PlanConfig("cfg", new AnalysisOptions(Map.of(
+                    "exception", "explicit", "dump", false))),
+            new PlanConfig("constprop", new AnalysisOptions(Map.of(
+                    "edge-refine", false))),
+            new PlanConfig("livevar", new AnalysisOptions(Map.of(
+                    "strongly", false))),
+            new PlanConfig("deadcode", new AnalysisOptions(Map.of())));
+
+    @Test
+    public void testDeadAssignment() {
+        compare("DeadAssignment");
+    }
+
+    @Test
+    public void testLoops() {
+        compare("Loops");
+    }
+
+    @Test
+    public void testUnreachableSwitchBranch() {
+        compare("UnreachableSwitchBranch");
+    }
+
+    private static void compare(String main) {
+        Main.main(new String[]{"-pp", "-cp", DIR, "-m", main,
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false",
+                "-a", DeadCodeDetection.ID});
+        List<String> expected = getDeadCode();
+        Main.buildWorld("-pp", "-cp", DIR, "-m", main);
+        MethodAnalysisDriver.runPlan(PLAN, 4);
+        List<String> given = getDeadCode();
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, given);
+    }
+
+    /**
+     * @return the dead code of all application methods, as sorted strings.
+     */
+    private static List<String> getDeadCode() {
+        List<String> lines = new ArrayList<>();
+        World.get().getClassHierarchy()
+                .applicationClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .forEach(m -> {
+                    Set<Stmt> deadCode = m.getIR().getResult(DeadCodeDetection.ID);
+                    deadCode.forEach(stmt -> lines.add(m + " " + stmt));
+                });
+        Collections.sort(lines);
+        return lines;
+    }
+}
@@ -34,6 +34,13 @@ public class DeadCodeTest {
                 "-a", "constprop=edge-refine:false");
     }
 
+    void testDCD(String inputClass, String solver) {
+        Tests.test(inputClass, "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;solver:" + solver,
+                "-a", "constprop=edge-refine:false;solver:" + solver);
+    }
+
     @Test
     public void testControlFlowUnreachable() {
         testDCD("ControlFlowUnreachable");
@@ -58,4 +65,59 @@ public class DeadCodeTest {
     public void testLoops() {
         testDCD("Loops");
     }
+
+    @Test
+    public void testLoopsFIFOSolver() {
+        testDCD("Loops", "fifo");
+    }
+
+    @Test
+    public void testLoopsBlockSolver() {
+        testDCD("Loops", "block");
+    }
+
+    @Test
+    public void testUnreachableSwitchBranchBlockSolver() {
+        testDCD("UnreachableSwitchBranch", "block");
+    }
+
+    @Test
+    public void testDeadAssignmentBitVector() {
+        Tests.test("DeadAssignment", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;bit-vector:true",
+                "-a", "constprop=edge-refine:false");
+    }
+
+    void testDCDSparse(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false;sparse:true");
+    }
+
+    @Test
+    public void testControlFlowUnreachableSparse() {
+        testDCDSparse("ControlFlowUnreachable");
+    }
+
+    @Test
+    public void testDeadAssignmentSparse() {
+        testDCDSparse("DeadAssignment");
+    }
+
+    @Test
+    public void testLoopsSparse() {
+        testDCDSparse("Loops");
+    }
+
+    @Test
+    public void testUnreachableIfBranchSparse() {
+        testDCDSparse("UnreachableIfBranch");
+    }
+
+    @Test
+    public void testUnreachableSwitchBranchSparse() {
+        testDCDSparse("UnreachableSwitchBranch");
+    }
 }
@@ -0,0 +1,84 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.fact;
+
+import org.junit.Test;
+import pascal.taie.util.Indexable;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class BitSetFactTest {
+
+    private record Element(int getIndex) implements Indexable {
+    }
+
+    private static final List<Element> ELEMENTS = List.of(
+            new Element(0), new Element(1), new Element(64), new Element(130));
+
+    private static BitSetFact<Element> newBitSetFact(int... indexes) {
+        BitSetFact<Element> fact = new BitSetFact<>((e, i) -> ELEMENTS.stream()
+                .filter(x -> x.getIndex() == i)
+                .findFirst()
+                .orElseThrow());
+        for (int i : indexes) {
+            fact.add(new Element(i));
+        }
+        return fact;
+    }
+
+    private static SetFact<Element> newSetFact(int... indexes) {
+        SetFact<Element> fact = new SetFact<>();
+        for (int i : indexes) {
+            fact.add(new Element(i));
+        }
+        return fact;
+    }
+
+    @Test
+    public void testOperations() {
+        BitSetFact<Element> fact = newBitSetFact(1, 64);
+        fact.union(newBitSetFact(130));
+        assertEquals(newBitSetFact(1, 64, 130), fact);
+        fact.intersect(newBitSetFact(0, 64, 130));
+        assertEquals(newBitSetFact(64, 130), fact);
+        fact.setGenKill(newBitSetFact(0, 1, 64),
+                List.of(new Element(1)), List.of(new Element(130)));
+        assertEquals(newBitSetFact(0, 64, 130), fact);
+        assertEquals(3, fact.size());
+        assertEquals(newSetFact(0, 64, 130).toString(), fact.toString());
+    }
+
+    @Test
+    public void testNotEqualToSetFact() {
+        BitSetFact<Element> bitSetFact = newBitSetFact(1, 64);
+        SetFact<Element> setFact = newSetFact(1, 64);
+        assertNotEquals(bitSetFact, setFact);
+        assertNotEquals(setFact, bitSetFact);
+        assertNotEquals(new SetFact<Element>(), newBitSetFact());
+        assertNotEquals(newBitSetFact(), new SetFact<Element>());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the priority work-list solver reaches the same facts as
+ * the FIFO one, with no more node visits.
+ */
+public class SolverTest {
+
+    private static final String DIR = "src/test/resources/dataflow/deadcode";
+
+    private static final List<String> ANALYSES = List.of(
+            LiveVariableAnalysis.ID, ConstantPropagation.ID);
+
+    @Test
+    public void testDeadAssignment() {
+        compareSolvers("DeadAssignment");
+    }
+
+    @Test
+    public void testLoops() {
+        compareSolvers("Loops");
+    }
+
+    @Test
+    public void testUnreachableSwitchBranch() {
+        compareSolvers("UnreachableSwitchBranch");
+    }
+
+    private static void compareSolvers(String main) {
+        Facts expected = analyze(main, "fifo");
+        Facts given = analyze(main, "worklist");
+        assertEquals(expected.facts(), given.facts());
+        for (int i = 0; i < ANALYSES.size(); ++i) {
+            int worklistVisits = given.visits().get(i);
+            int fifoVisits = expected.visits().get(i);
+            assertTrue(ANALYSES.get(i) + ": " + worklistVisits + " > " + fifoVisits,
+                    worklistVisits <= fifoVisits);
+        }
+    }
+
+    /**
+     * Runs the analyses in {@link #ANALYSES} with given kind of solver.
+     *
+     * @return the facts of all statements in the main class, as strings,
+     * and the total number of node visits of each analysis.
+     */
+    private static Facts analyze(String main, String solver) {
+        Main.main(new String[]{"-pp", "-cp", DIR, "-m", main,
+                "-a", "livevar=strongly:false;solver:" + solver,
+                "-a", "constprop=edge-refine:false;solver:" + solver});
+        List<String> facts = new ArrayList<>();
+        List<Integer> visits = new ArrayList<>();
+        for (String id : ANALYSES) {
+            int count = 0;
+            for (var method : World.get().getClassHierarchy()
+                    .getClass(main).getDeclaredMethods()) {
+                if (method.isAbstract() || method.isNative()) {
+                    continue;
+                }
+                IR ir = method.getIR();
+                DataflowResult<Stmt, ?> result = ir.getResult(id);
+                for (Stmt stmt : ir) {
+                    facts.add(id + " " + method + " " + stmt + ": " +
+                            result.getInFact(stmt) + " -> " + result.getOutFact(stmt));
+                }
+                count += result.getNodeVisits();
+            }
+            visits.add(count);
+        }
+        return new Facts(facts, visits);
+    }
+
+    private record Facts(List<String> facts, List<Integer> visits) {
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.core.cs.context;
+
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Contexts organized as a trie: each context is the child of its parent
+ * context (i.e., all elements but the last one) by its last element.
+ * Contexts are made by a {@link Factory}, which interns them, thus each
+ * distinct context of a factory exists only once, and two contexts are
+ * equal if and only if they are the same object.
+ * <p>
+ * Each context also keeps its elements in an array for constant-time
+ * access; as contexts are short (bounded by the k of the selector),
+ * the arrays are small.
+ */
+public class TrieContext implements Context {
+
+    /**
+     * The empty context of the trie of this context.
+     */
+    private final TrieContext root;
+
+    /**
+     * The elements of this context, so that each element
+     * can be accessed without walking the trie.
+     */
+    private final Object[] elements;
+
+    /**
+     * Map from element to the context that appends the element
+     * to this context. It is created on demand.
+     */
+    private Map<Object, TrieContext> children;
+
+    /**
+     * @param parent the context consisting of all elements of this
+     *               context but the last one; null for the empty context.
+     * @param elem   the last element of this context.
+     */
+    private TrieContext(TrieContext parent, Object elem) {
+        if (parent == null) {
+            root = this;
+            elements = new Object[0];
+        } else {
+            root = parent.root;
+            elements = Arrays.copyOf(parent.elements, parent.elements.length + 1);
+            elements[elements.length - 1] = elem;
+        }
+    }
+
+    @Override
+    public int getLength() {
+        return elements.length;
+    }
+
+    @Override
+    public Object getElementAt(int i) {
+        if (i < 0 || i >= elements.length) {
+            throw new AnalysisException(
+                    "Context " + this + " doesn't have " + i + "-th element");
+        }
+        return elements[i];
+    }
+
+    /**
+     * @return the context that consists of the last k elements
+     * of this context, which is in the same trie as this context.
+     */
+    public TrieContext getLastK(int k) {
+        int length = elements.length;
+        if (length <= k) {
+            return this;
+        }
+        TrieContext c = root;
+        for (int i = length - k; i < length; ++i) {
+            c = c.getChild(elements[i]);
+        }
+        return c;
+    }
+
+    private TrieContext getChild(Object elem) {
+        if (children == null) {
+            children = Maps.newHybridMap();
+        }
+        return children.computeIfAbsent(elem, e -> new TrieContext(this, e));
+    }
+
+    @Override
+    public String toString() {
+        // same as ListContext
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (Object elem : elements) {
+            joiner.add(String.valueOf(elem));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Makes and interns trie contexts.
+     */
+    public static class Factory {
+
+        private final TrieContext root = new TrieContext(null, null);
+
+        /**
+         * @return the empty context.
+         */
+        public Context getEmptyContext() {
+            return root;
+        }
+
+        /**
+         * @return the context that consists of given context elements.
+         */
+        public Context make(Object... elements) {
+            TrieContext c = root;
+            for (Object elem : elements) {
+                c = c.getChild(elem);
+            }
+            return c;
+        }
+
+        /**
+         * @return the context that consists of the last (limit - 1) elements
+         * of given context followed by given element.
+         */
+        public Context append(Context parent, Object elem, int limit) {
+            return ((TrieContext) parent).getLastK(limit - 1).getChild(elem);
+        }
+
+        /**
+         * @return the context that consists of the last k elements
+         * of given context.
+         */
+        public Context getLastK(Context context, int k) {
+            return ((TrieContext) context).getLastK(k);
+        }
+    }
+}
@@ -0,0 +1,516 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.heap.NewObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Manages context-sensitive elements and pointers in pointer analysis
+ * by arrays indexed by dense integer ids.
+ * <p>
+ * Each context is assigned an id by the manager on its first use, so that
+ * all contexts share one id space. The elements of a method (variables,
+ * call sites and the method itself) are stored in a per-method table owned
+ * by the manager, where variables and call sites are indexed by
+ * {@link Var#getIndex()} and {@link Invoke#getIndex()},
+ * and then by the slot of the context in the method. As a method is usually
+ * analyzed under a few of all contexts, each table maps context ids to its
+ * own dense slots by a small open-addressing map, so that its size does
+ * not depend on the total number of contexts. Likewise, the objects
+ * allocated by a method are found in its table by the allocation sites.
+ * The fields and array indexes of an object are indexed by
+ * {@link CSObj#getIndex()}.
+ */
+public class ArrayBasedCSManager implements CSManager {
+
+    private static final CSVar[] EMPTY_VARS = new CSVar[0];
+
+    private static final CSCallSite[] EMPTY_CALL_SITES = new CSCallSite[0];
+
+    private static final CSMethod[] EMPTY_METHODS = new CSMethod[0];
+
+    /**
+     * Map from context to its id.
+     */
+    private final Map<Context, Integer> contextIds = Maps.newMap();
+
+    /**
+     * Map from method to the table of its elements.
+     */
+    private final Map<JMethod, MethodTable> methodTables = Maps.newMap();
+
+    /**
+     * Map from (abstract) object to the table of its context-sensitive
+     * objects, for the objects not allocated by {@link New} statements.
+     */
+    private final Map<Obj, ObjTable> objTables = Maps.newMap();
+
+    /**
+     * The i-th element is the object with index i.
+     */
+    private final List<CSObj> objs = new ArrayList<>();
+
+    private final Indexer<CSObj> objIndexer = new Indexer<>() {
+
+        @Override
+        public int getIndex(CSObj o) {
+            return o.getIndex();
+        }
+
+        @Override
+        public CSObj getObject(int index) {
+            return objs.get(index);
+        }
+    };
+
+    private final Map<JField, StaticField> staticFields = Maps.newMap();
+
+    /**
+     * The i-th element holds the instance fields of the object with index i.
+     */
+    private final List<Map<JField, InstanceField>> instanceFields = new ArrayList<>();
+
+    /**
+     * The i-th element is the array index of the object with index i.
+     */
+    private final List<ArrayIndex> arrayIndexes = new ArrayList<>();
+
+    private final List<Var> vars = new ArrayList<>();
+
+    private final List<CSVar> csVars = new ArrayList<>();
+
+    private final List<InstanceField> allInstanceFields = new ArrayList<>();
+
+    private final List<ArrayIndex> allArrayIndexes = new ArrayList<>();
+
+    @Override
+    public CSVar getCSVar(Context context, Var var) {
+        MethodTable table = getMethodTable(var.getMethod());
+        int ctx = table.getSlot(getContextId(context));
+        int index = var.getIndex();
+        CSVar[][] varTable = table.vars = ensureCapacity(
+                table.vars, index, CSVar[][]::new);
+        CSVar[] csVarsOfVar = varTable[index];
+        if (csVarsOfVar == null) {
+            vars.add(var);
+            csVarsOfVar = EMPTY_VARS;
+        }
+        csVarsOfVar = varTable[index] = ensureCapacity(
+                csVarsOfVar, ctx, CSVar[]::new);
+        CSVar csVar = csVarsOfVar[ctx];
+        if (csVar == null) {
+            csVar = csVarsOfVar[ctx] = initializePointsToSet(new CSVar(var, context));
+            csVars.add(csVar);
+        }
+        return csVar;
+    }
+
+    @Override
+    public CSObj getCSObj(Context heapContext, Obj obj) {
+        ObjTable table = getObjTable(obj);
+        int ctx = table.getSlot(getContextId(heapContext));
+        CSObj[] csObjs = table.objs = ensureCapacity(
+                table.objs, ctx, CSObj[]::new);
+        CSObj csObj = csObjs[ctx];
+        if (csObj == null) {
+            csObj = csObjs[ctx] = new CSObj(obj, heapContext, objs.size());
+            objs.add(csObj);
+            instanceFields.add(null);
+            arrayIndexes.add(null);
+        }
+        return csObj;
+    }
+
+    @Override
+    public CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        MethodTable table = getMethodTable(callSite.getContainer());
+        int ctx = table.getSlot(getContextId(context));
+        int index = callSite.getIndex();
+        CSCallSite[][] callSiteTable = table.callSites = ensureCapacity(
+                table.callSites, index, CSCallSite[][]::new);
+        CSCallSite[] csCallSites = callSiteTable[index] = ensureCapacity(
+                callSiteTable[index] != null ? callSiteTable[index] : EMPTY_CALL_SITES,
+                ctx, CSCallSite[]::new);
+        CSCallSite csCallSite = csCallSites[ctx];
+        if (csCallSite == null) {
+            csCallSite = csCallSites[ctx] = new CSCallSite(callSite, context);
+        }
+        return csCallSite;
+    }
+
+    @Override
+    public CSMethod getCSMethod(Context context, JMethod method) {
+        MethodTable table = getMethodTable(method);
+        int ctx = table.getSlot(getContextId(context));
+        CSMethod[] csMethods = table.methods = ensureCapacity(
+                table.methods, ctx, CSMethod[]::new);
+        CSMethod csMethod = csMethods[ctx];
+        if (csMethod == null) {
+            csMethod = csMethods[ctx] = new CSMethod(method, context);
+        }
+        return csMethod;
+    }
+
+    @Override
+    public StaticField getStaticField(JField field) {
+        return staticFields.computeIfAbsent(field,
+                f -> initializePointsToSet(new StaticField(f)));
+    }
+
+    @Override
+    public InstanceField getInstanceField(CSObj base, JField field) {
+        int index = base.getIndex();
+        Map<JField, InstanceField> fields = instanceFields.get(index);
+        if (fields == null) {
+            fields = Maps.newHybridMap();
+            instanceFields.set(index, fields);
+        }
+        return fields.computeIfAbsent(field, f -> {
+            InstanceField instanceField = initializePointsToSet(
+                    new InstanceField(base, f));
+            allInstanceFields.add(instanceField);
+            return instanceField;
+        });
+    }
+
+    @Override
+    public ArrayIndex getArrayIndex(CSObj array) {
+        int index = array.getIndex();
+        ArrayIndex arrayIndex = arrayIndexes.get(index);
+        if (arrayIndex == null) {
+            arrayIndex = initializePointsToSet(new ArrayIndex(array));
+            arrayIndexes.set(index, arrayIndex);
+            allArrayIndexes.add(arrayIndex);
+        }
+        return arrayIndex;
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return Collections.unmodifiableList(vars);
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return Collections.unmodifiableList(csVars);
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        MethodTable table = methodTables.get(var.getMethod());
+        int index = var.getIndex();
+        if (table == null || index >= table.vars.length
+                || table.vars[index] == null) {
+            return List.of();
+        }
+        List<CSVar> result = new ArrayList<>();
+        for (CSVar csVar : table.vars[index]) {
+            if (csVar != null) {
+                result.add(csVar);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void removeStaleElements(JMethod method) {
+        MethodTable table = methodTables.get(method);
+        if (table == null) {
+            return;
+        }
+        IR ir = method.getIR();
+        Set<Var> staleVars = Sets.newSet();
+        for (int i = 0; i < table.vars.length; ++i) {
+            CSVar csVar = findFirst(table.vars[i]);
+            if (csVar != null && (i >= ir.getVars().size()
+                    || ir.getVar(i) != csVar.getVar())) {
+                staleVars.add(csVar.getVar());
+                table.vars[i] = null;
+            }
+        }
+        if (!staleVars.isEmpty()) {
+            vars.removeIf(staleVars::contains);
+            csVars.removeIf(v -> staleVars.contains(v.getVar()));
+        }
+        int nStmts = ir.getStmts().size();
+        for (int i = 0; i < table.callSites.length; ++i) {
+            CSCallSite csCallSite = findFirst(table.callSites[i]);
+            if (csCallSite != null && (i >= nStmts
+                    || ir.getStmt(i) != csCallSite.getCallSite())) {
+                table.callSites[i] = null;
+            }
+        }
+        // the objects of replaced allocation sites are kept (as their
+        // indexes are in use), but the new sites get their own objects
+        for (int i = 0; i < table.objs.length; ++i) {
+            CSObj csObj = table.objs[i] != null ?
+                    findFirst(table.objs[i].objs) : null;
+            if (csObj != null && (i >= nStmts || ir.getStmt(i) !=
+                    ((NewObj) csObj.getObject()).getAllocation())) {
+                table.objs[i] = null;
+            }
+        }
+    }
+
+    @Override
+    public void removeCSVars(Collection<CSVar> removed) {
+        Set<CSVar> removedSet = Sets.newSet(removed.size());
+        Set<Var> removedVars = Sets.newSet();
+        for (CSVar csVar : removed) {
+            Var var = csVar.getVar();
+            MethodTable table = methodTables.get(var.getMethod());
+            int index = var.getIndex();
+            if (table == null || index >= table.vars.length
+                    || table.vars[index] == null) {
+                continue;
+            }
+            CSVar[] csVarsOfVar = table.vars[index];
+            for (int i = 0; i < csVarsOfVar.length; ++i) {
+                if (csVarsOfVar[i] == csVar) {
+                    csVarsOfVar[i] = null;
+                    removedSet.add(csVar);
+                }
+            }
+            if (findFirst(csVarsOfVar) == null) {
+                table.vars[index] = null;
+                removedVars.add(var);
+            }
+        }
+        vars.removeIf(removedVars::contains);
+        csVars.removeIf(removedSet::contains);
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return Collections.unmodifiableList(objs);
+    }
+
+    @Override
+    public Indexer<CSObj> getObjectIndexer() {
+        return objIndexer;
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return Collections.unmodifiableCollection(staticFields.values());
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return Collections.unmodifiableList(allInstanceFields);
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return Collections.unmodifiableList(allArrayIndexes);
+    }
+
+    private int getContextId(Context context) {
+        Integer id = contextIds.get(context);
+        if (id == null) {
+            id = contextIds.size();
+            contextIds.put(context, id);
+        }
+        return id;
+    }
+
+    /**
+     * @return the first non-null element of given array, or null if
+     * the array is null or has no such element.
+     */
+    @Nullable
+    private static <T> T findFirst(@Nullable T[] array) {
+        if (array != null) {
+            for (T e : array) {
+                if (e != null) {
+                    return e;
+                }
+            }
+        }
+        return null;
+    }
+
+    private MethodTable getMethodTable(JMethod method) {
+        return methodTables.computeIfAbsent(method, m -> new MethodTable());
+    }
+
+    /**
+     * @return the table of given object. The tables of the objects
+     * allocated by {@link New} statements are stored in the tables of
+     * their containing methods, and indexed by the statements.
+     */
+    private ObjTable getObjTable(Obj obj) {
+        if (obj instanceof NewObj newObj) {
+            New allocSite = newObj.getAllocation();
+            MethodTable methodTable = getMethodTable(allocSite.getContainer());
+            int index = allocSite.getIndex();
+            ObjTable[] tables = methodTable.objs = ensureCapacity(
+                    methodTable.objs, index, ObjTable[]::new);
+            ObjTable table = tables[index];
+            if (table == null) {
+                table = tables[index] = new ObjTable();
+            }
+            return table;
+        }
+        return objTables.computeIfAbsent(obj, o -> new ObjTable());
+    }
+
+    /**
+     * @return the given array if it can hold an element at given index,
+     * otherwise a larger copy of the array.
+     */
+    private static <T> T[] ensureCapacity(T[] array, int index,
+                                          IntFunction<T[]> generator) {
+        if (index < array.length) {
+            return array;
+        }
+        T[] newArray = generator.apply(Math.max(index + 1, array.length * 2));
+        System.arraycopy(array, 0, newArray, 0, array.length);
+        return newArray;
+    }
+
+    private <P extends Pointer> P initializePointsToSet(P pointer) {
+        pointer.setPointsToSet(PointsToSetFactory.make());
+        return pointer;
+    }
+
+    /**
+     * Assigns dense slots to the contexts used in a table. The slots are
+     * kept in an open-addressing hash table from context id to slot,
+     * whose size is proportional to the number of contexts in the table.
+     */
+    private static class ContextSlots {
+
+        /**
+         * Context ids in the hash table, -1 means empty.
+         */
+        private int[] keys = { -1, -1, -1, -1 };
+
+        private int[] slots = new int[4];
+
+        private int nextSlot = 0;
+
+        int getSlot(int contextId) {
+            int mask = keys.length - 1;
+            int i = hash(contextId) & mask;
+            while (keys[i] != -1) {
+                if (keys[i] == contextId) {
+                    return slots[i];
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = contextId;
+            int slot = slots[i] = nextSlot++;
+            // keep load factor <= 1/2
+            if (nextSlot * 2 > keys.length) {
+                rehash();
+            }
+            return slot;
+        }
+
+        private void rehash() {
+            int[] oldKeys = keys;
+            int[] oldSlots = slots;
+            keys = new int[oldKeys.length * 2];
+            Arrays.fill(keys, -1);
+            slots = new int[keys.length];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; ++j) {
+                if (oldKeys[j] != -1) {
+                    int i = hash(oldKeys[j]) & mask;
+                    while (keys[i] != -1) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    slots[i] = oldSlots[j];
+                }
+            }
+        }
+
+        private static int hash(int contextId) {
+            int h = contextId * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * Context-sensitive elements of a method.
+     */
+    private static class MethodTable extends ContextSlots {
+
+        /**
+         * Indexed by variable index, then by context slot.
+         */
+        private CSVar[][] vars = new CSVar[0][];
+
+        /**
+         * Indexed by call site index, then by context slot.
+         */
+        private CSCallSite[][] callSites = new CSCallSite[0][];
+
+        /**
+         * Indexed by context slot.
+         */
+        private CSMethod[] methods = EMPTY_METHODS;
+
+        /**
+         * Tables of the objects allocated in the method,
+         * indexed by allocation statement index.
+         */
+        private ObjTable[] objs = new ObjTable[0];
+    }
+
+    /**
+     * Context-sensitive objects of an abstract object.
+     */
+    private static class ObjTable extends ContextSlots {
+
+        /**
+         * Indexed by context slot.
+         */
+        private CSObj[] objs = new CSObj[0];
+    }
+}
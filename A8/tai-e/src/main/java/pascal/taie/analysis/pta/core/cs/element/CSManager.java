@@ -28,6 +28,7 @@ import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
 
 import java.util.Collection;
 
@@ -92,6 +93,26 @@ public interface CSManager {
      */
     Collection<CSObj> getObjects();
 
+    /**
+     * @return the indexer of context-sensitive objects. The indexes are
+     * dense, i.e., the i-th created object has index i.
+     */
+    Indexer<CSObj> getObjectIndexer();
+
+    /**
+     * Removes the context-sensitive variables and call sites of the
+     * variables and statements which given method does not contain any
+     * more, i.e., the ones of its IR before {@link JMethod#setIR} was
+     * called. The removed elements should not be used afterwards.
+     */
+    void removeStaleElements(JMethod method);
+
+    /**
+     * Removes given context-sensitive variables, e.g., the ones of
+     * the methods which become unreachable.
+     */
+    void removeCSVars(Collection<CSVar> csVars);
+
     /**
      * @return all static field pointers.
      */
@@ -23,7 +23,7 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
-import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.cs.context.TrieContext;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
@@ -39,18 +39,17 @@ import java.util.List;
  */
 public class _2CallSelector implements ContextSelector {
 
+    private final TrieContext.Factory factory = new TrieContext.Factory();
+
     @Override
     public Context getEmptyContext() {
-        return ListContext.make();
+        return factory.getEmptyContext();
     }
 
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
         // TODO - finish me
-        if (callSite.getContext().getLength() > 0) {
-            return ListContext.make(callSite.getContext().getElementAt(callSite.getContext().getLength() - 1), callSite.getCallSite());
-        }
-        return ListContext.make(callSite.getCallSite());
+        return factory.append(callSite.getContext(), callSite.getCallSite(), 2);
     }
 
     @Override
@@ -62,10 +61,6 @@ public class _2CallSelector implements ContextSelector {
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
         // TODO - finish me
-        Context oldContext = method.getContext();
-        if (oldContext.getLength() > 1) {
-            return ListContext.make(oldContext.getElementAt(oldContext.getLength() - 1));
-        }
-        return oldContext;
+        return factory.getLastK(method.getContext(), 1);
     }
 }
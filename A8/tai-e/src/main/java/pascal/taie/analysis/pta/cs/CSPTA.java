@@ -22,27 +22,63 @@
 
 package pascal.taie.analysis.pta.cs;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
 import pascal.taie.analysis.ProgramAnalysis;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.PointerAnalysisResultImpl;
+import pascal.taie.analysis.pta.core.cs.CSCallGraph;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.selector.CISelector;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.cs.selector.SelectiveSelector;
 import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.plugin.ResultProcessor;
+import pascal.taie.analysis.pta.plugin.taint.TaintAnalysiss;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.AnalysisOptions;
 import pascal.taie.config.ConfigException;
+import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.Strings;
+import pascal.taie.util.collection.Maps;
 
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Context-sensitive pointer analysis.
  */
 public class CSPTA extends ProgramAnalysis {
 
+    private static final Logger logger = LogManager.getLogger(CSPTA.class);
+
     public static final String ID = "cspta";
 
+    /**
+     * Options passed to the solver of the pre-analysis of selective
+     * context sensitivity. The others, e.g., taint-config and action,
+     * concern only the main analysis, and are dropped for pre-analysis.
+     */
+    private static final List<String> PRE_ANALYSIS_OPTIONS = List.of(
+            "cs-manager", "pts", "merge-work-list", "collapse-cycles",
+            "threads", "type-filter");
+
+    /**
+     * Solver of last analysis, which is reused by incremental analysis.
+     */
+    private Solver solver;
+
     public CSPTA(AnalysisConfig config) {
         super(config);
     }
@@ -50,15 +86,114 @@ public class CSPTA extends ProgramAnalysis {
     @Override
     public PointerAnalysisResult analyze() {
         AnalysisOptions options = getOptions();
-        Solver solver = new Solver(options,
-                new AllocationSiteBasedModel(options),
-                getContextSelector(options.getString("cs")));
+        HeapModel heapModel = new AllocationSiteBasedModel(options);
+        if (options.getBooleanOrDefault("demand-taint", false)) {
+            PointerAnalysisResult result = analyzeTaintOnDemand(options, heapModel);
+            ResultProcessor.process(options, result);
+            return result;
+        }
+        ContextSelector selector = getContextSelector(options.getString("cs"));
+        if (options.getBooleanOrDefault("selective-cs", false)
+                && !(selector instanceof CISelector)) {
+            selector = getSelectiveSelector(options, heapModel, selector);
+        }
+        solver = new Solver(options, heapModel, selector);
         solver.solve();
+        String changedMethods = options.getString("changed-methods");
+        if (changedMethods != null) {
+            return reanalyze(readChangedMethods(changedMethods));
+        }
         PointerAnalysisResult result = solver.getResult();
         ResultProcessor.process(options, result);
         return result;
     }
 
+    /**
+     * Updates the result of last {@link #analyze()} after the IR of given
+     * methods changed, reusing the points-to sets which are not affected.
+     */
+    public PointerAnalysisResult reanalyze(Collection<JMethod> changedMethods) {
+        if (solver == null) {
+            return analyze();
+        }
+        solver.update(changedMethods);
+        PointerAnalysisResult result = solver.getResult();
+        ResultProcessor.process(getOptions(), result);
+        return result;
+    }
+
+    /**
+     * Reads the methods for option changed-methods, which gives a file
+     * of method signatures (one per line). After the analysis, the
+     * result is updated incrementally as if these methods were edited,
+     * so that the cost of incremental analysis can be measured (and its
+     * result checked) from command line. The tools which edit the IR
+     * should call {@link #reanalyze(Collection)} instead.
+     */
+    private static List<JMethod> readChangedMethods(String path) {
+        List<String> signatures;
+        try {
+            signatures = Files.readAllLines(Path.of(path));
+        } catch (IOException e) {
+            throw new ConfigException("Failed to read changed methods from " + path, e);
+        }
+        List<JMethod> methods = new ArrayList<>();
+        for (String signature : signatures) {
+            if (signature.isBlank()) {
+                continue;
+            }
+            JMethod method = World.get().getClassHierarchy().getMethod(signature.strip());
+            if (method == null) {
+                throw new ConfigException("Changed method " + signature + " is not found");
+            }
+            methods.add(method);
+        }
+        return methods;
+    }
+
+    /**
+     * Runs taint analysis by demand-driven points-to queries on sink
+     * arguments, instead of whole-program pointer analysis.
+     *
+     * @return a result that contains only the taint flows.
+     */
+    private static PointerAnalysisResult analyzeTaintOnDemand(
+            AnalysisOptions options, HeapModel heapModel) {
+        if (options.getString("taint-config") == null) {
+            throw new ConfigException("Option taint-config is required" +
+                    " by demand-driven taint analysis");
+        }
+        CSManager csManager = new MapBasedCSManager();
+        PointerAnalysisResult result = new PointerAnalysisResultImpl(
+                csManager, new CSCallGraph(csManager));
+        result.storeResult(TaintAnalysiss.class.getName(),
+                TaintAnalysiss.analyzeOnDemand(options, heapModel));
+        return result;
+    }
+
+    /**
+     * Runs context-insensitive pre-analysis, and makes a selector that
+     * applies given selector only to the precision-critical methods.
+     */
+    private static ContextSelector getSelectiveSelector(
+            AnalysisOptions options, HeapModel heapModel, ContextSelector selector) {
+        Map<String, Object> preOptions = Maps.newMap();
+        for (String key : PRE_ANALYSIS_OPTIONS) {
+            if (options.get(key) != null) {
+                preOptions.put(key, options.get(key));
+            }
+        }
+        Solver preSolver = new Solver(new AnalysisOptions(preOptions),
+                heapModel, new CISelector());
+        preSolver.solve();
+        Set<JMethod> csMethods = new CriticalMethodFinder(
+                preSolver.getResult()).find();
+        logger.info("Selective context sensitivity: #critical methods: {}" +
+                        " / #reachable methods: {}", csMethods.size(),
+                preSolver.getResult().getCallGraph().getNumberOfMethods());
+        return new SelectiveSelector(selector, csMethods);
+    }
+
     private static ContextSelector getContextSelector(String cs) {
         if (cs.equals("ci")) {
             return new CISelector();
@@ -0,0 +1,144 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.cs;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.TrieContext;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+
+/**
+ * Guards the scalability of context-sensitive pointer analysis by
+ * budgets on the number of contexts and on the points-to volume (i.e.,
+ * the total size of the points-to sets of the variables) of each method.
+ * <p>
+ * Each time a method exceeds a budget (again), it is demoted by one
+ * level, and for the rest of the analysis its contexts drop as many
+ * oldest elements as its level, e.g., a method under 2-object sensitivity
+ * is analyzed with 1-object contexts after its first demotion, and
+ * context-insensitively after the second one.
+ */
+class ContextBudget {
+
+    private static final Logger logger = LogManager.getLogger(ContextBudget.class);
+
+    /**
+     * Maximum number of contexts of a method before each demotion,
+     * or non-positive if unlimited.
+     */
+    private final int maxContexts;
+
+    /**
+     * Maximum points-to volume of a method before each demotion,
+     * or non-positive if unlimited.
+     */
+    private final long maxVolume;
+
+    private final Map<JMethod, Budget> budgets = Maps.newMap();
+
+    private int demotedMethods = 0;
+
+    ContextBudget(int maxContexts, long maxVolume) {
+        this.maxContexts = maxContexts;
+        this.maxVolume = maxVolume;
+    }
+
+    /**
+     * Records a new context of given method.
+     */
+    void addContext(JMethod method) {
+        Budget budget = getBudget(method);
+        ++budget.contexts;
+        if (maxContexts > 0 && budget.contexts > maxContexts) {
+            demote(method, budget, "#contexts");
+        }
+    }
+
+    /**
+     * Records that the points-to set of a variable in given method
+     * grew by given size.
+     */
+    void addVolume(JMethod method, int size) {
+        Budget budget = getBudget(method);
+        budget.volume += size;
+        if (maxVolume > 0 && budget.volume > maxVolume) {
+            demote(method, budget, "points-to volume");
+        }
+    }
+
+    /**
+     * @return the context for analyzing given method, i.e., the given
+     * context with its oldest elements dropped if the method is demoted.
+     */
+    Context adjust(JMethod method, Context context) {
+        Budget budget = budgets.get(method);
+        if (budget == null || budget.level == 0 || context.getLength() == 0) {
+            return context;
+        }
+        return ((TrieContext) context).getLastK(
+                Math.max(context.getLength() - budget.level, 0));
+    }
+
+    /**
+     * @return number of methods that have been demoted.
+     */
+    int getDemotedMethods() {
+        return demotedMethods;
+    }
+
+    private Budget getBudget(JMethod method) {
+        return budgets.computeIfAbsent(method, m -> new Budget());
+    }
+
+    /**
+     * Demotes given method by one level, and resets its counters, so that
+     * it is demoted again if it exceeds the budget at its new level.
+     */
+    private void demote(JMethod method, Budget budget, String reason) {
+        if (budget.level == 0) {
+            ++demotedMethods;
+        }
+        ++budget.level;
+        logger.info("Demoted {} to level {} ({}: #contexts: {}, points-to volume: {})",
+                method, budget.level, reason, budget.contexts, budget.volume);
+        budget.contexts = 0;
+        budget.volume = 0;
+    }
+
+    private static class Budget {
+
+        /**
+         * Number of oldest context elements dropped for the method.
+         */
+        private int level = 0;
+
+        private int contexts = 0;
+
+        private long volume = 0;
+    }
+}
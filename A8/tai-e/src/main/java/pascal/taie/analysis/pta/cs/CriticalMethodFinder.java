@@ -0,0 +1,196 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.cs;
+
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Set;
+
+/**
+ * Finds the precision-critical methods from the result of a
+ * context-insensitive pre-analysis, in the spirit of Zipper.
+ * <p>
+ * Analyzing a method context-insensitively merges the objects that flow
+ * into it from different call sites; precision is lost when such objects
+ * also flow out of the method, i.e., when the objects pointed to by
+ * the parameters (including this) of a method
+ * <ul>
+ *     <li>are returned (direct flow),</li>
+ *     <li>are stored into the fields or elements of the objects coming
+ *     in or going out (wrapped flow), or</li>
+ *     <li>have fields or elements that are loaded and returned
+ *     (unwrapped flow).</li>
+ * </ul>
+ * The objects which the method loads from the fields or elements of
+ * incoming objects (e.g., the backing array of a container) are also
+ * regarded as incoming. Besides, precision is lost when the objects
+ * allocated by the method are stored into incoming objects, as their
+ * heap contexts are derived from the context of the method.
+ * The methods with any of these flows are considered precision-critical.
+ */
+class CriticalMethodFinder {
+
+    private final PointerAnalysisResult pta;
+
+    /**
+     * @param pta result of context-insensitive pointer analysis.
+     */
+    CriticalMethodFinder(PointerAnalysisResult pta) {
+        this.pta = pta;
+    }
+
+    /**
+     * @return the precision-critical methods.
+     */
+    Set<JMethod> find() {
+        Set<JMethod> result = Sets.newSet();
+        pta.getCallGraph().reachableMethods()
+                .filter(this::isCritical)
+                .forEach(result::add);
+        return result;
+    }
+
+    private boolean isCritical(JMethod method) {
+        IR ir = method.getIR();
+        Set<Obj> ins = Sets.newHybridSet();
+        if (ir.getThis() != null) {
+            ins.addAll(pta.getPointsToSet(ir.getThis()));
+        }
+        ir.getParams().forEach(p -> ins.addAll(pta.getPointsToSet(p)));
+        if (ins.isEmpty()) {
+            return false;
+        }
+        Set<Obj> outs = Sets.newHybridSet();
+        ir.getReturnVars().forEach(r -> outs.addAll(pta.getPointsToSet(r)));
+        // direct flow
+        if (overlaps(ins, outs)) {
+            return true;
+        }
+        addLoadedObjects(ir, ins);
+        Set<Obj> allocated = Sets.newHybridSet();
+        for (Stmt stmt : ir) {
+            if (stmt instanceof New newStmt) {
+                allocated.addAll(pta.getPointsToSet(newStmt.getLValue()));
+            }
+        }
+        for (Stmt stmt : ir) {
+            // wrapped flow
+            if (stmt instanceof StoreField store && !store.isStatic()) {
+                Var base = ((InstanceFieldAccess) store.getFieldAccess()).getBase();
+                if (isWrapped(store.getRValue(), base, ins, outs, allocated)) {
+                    return true;
+                }
+            } else if (stmt instanceof StoreArray store) {
+                Var base = store.getArrayAccess().getBase();
+                if (isWrapped(store.getRValue(), base, ins, outs, allocated)) {
+                    return true;
+                }
+            // unwrapped flow
+            } else if (stmt instanceof LoadField load && !load.isStatic()) {
+                Var base = ((InstanceFieldAccess) load.getFieldAccess()).getBase();
+                if (isUnwrapped(base, load.getLValue(), ins, outs)) {
+                    return true;
+                }
+            } else if (stmt instanceof LoadArray load) {
+                Var base = load.getArrayAccess().getBase();
+                if (isUnwrapped(base, load.getLValue(), ins, outs)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds to ins the objects that are loaded, in given method, from
+     * the fields/elements of the objects in ins, until no more is added.
+     */
+    private void addLoadedObjects(IR ir, Set<Obj> ins) {
+        boolean changed;
+        do {
+            changed = false;
+            for (Stmt stmt : ir) {
+                Var base = null;
+                if (stmt instanceof LoadField load && !load.isStatic()) {
+                    base = ((InstanceFieldAccess) load.getFieldAccess()).getBase();
+                } else if (stmt instanceof LoadArray load) {
+                    base = load.getArrayAccess().getBase();
+                }
+                if (base != null && overlaps(pta.getPointsToSet(base), ins)) {
+                    Var lhs = (Var) stmt.getDef().get();
+                    changed |= ins.addAll(pta.getPointsToSet(lhs));
+                }
+            }
+        } while (changed);
+    }
+
+    /**
+     * @return true if incoming objects flow from value to the
+     * fields/elements of base, which come in or go out, or if objects
+     * allocated by the method flow from value into incoming objects.
+     */
+    private boolean isWrapped(Var value, Var base, Set<Obj> ins,
+                              Set<Obj> outs, Set<Obj> allocated) {
+        Set<Obj> basePts = pta.getPointsToSet(base);
+        Set<Obj> valuePts = pta.getPointsToSet(value);
+        return (overlaps(valuePts, ins)
+                && (overlaps(basePts, ins) || overlaps(basePts, outs)))
+                || (overlaps(valuePts, allocated) && overlaps(basePts, ins));
+    }
+
+    /**
+     * @return true if the objects loaded from the fields/elements of
+     * incoming objects (via base) to value go out.
+     */
+    private boolean isUnwrapped(Var base, Var value, Set<Obj> ins, Set<Obj> outs) {
+        return overlaps(pta.getPointsToSet(base), ins)
+                && overlaps(pta.getPointsToSet(value), outs);
+    }
+
+    private static boolean overlaps(Set<Obj> s1, Set<Obj> s2) {
+        if (s1.size() > s2.size()) {
+            Set<Obj> tmp = s1;
+            s1 = s2;
+            s2 = tmp;
+        }
+        for (Obj obj : s1) {
+            if (s2.contains(obj)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.cs;
+
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.plugin.taint.TaintAnalysiss;
+import pascal.taie.ir.exp.CastExp;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The statements of a method which are relevant to pointer analysis,
+ * with their allocated objects, fields and static callees resolved.
+ * A summary is built once when the method first becomes reachable,
+ * and it is shared by all contexts of the method, so that processing
+ * the method under a new context needs no walk over its IR.
+ */
+class MethodSummary {
+
+    /**
+     * x = new T(), represented by (x, obj).
+     */
+    private final List<Alloc> allocs = new ArrayList<>(0);
+
+    /**
+     * x = y and x = (T) y.
+     */
+    private final List<Assign> assigns = new ArrayList<>(0);
+
+    /**
+     * x = T.f, represented by (f, x).
+     */
+    private final List<StaticFieldVar> staticLoads = new ArrayList<>(0);
+
+    /**
+     * T.f = y, represented by (f, y).
+     */
+    private final List<StaticFieldVar> staticStores = new ArrayList<>(0);
+
+    /**
+     * y = x.f, represented by (x, f, y).
+     */
+    private final List<FieldVar> loadFields = new ArrayList<>(0);
+
+    /**
+     * x.f = y, represented by (x, f, y).
+     */
+    private final List<FieldVar> storeFields = new ArrayList<>(0);
+
+    /**
+     * y = x[*], represented by (x, y).
+     */
+    private final List<ArrayVar> loadArrays = new ArrayList<>(0);
+
+    /**
+     * x[*] = y, represented by (x, y).
+     */
+    private final List<ArrayVar> storeArrays = new ArrayList<>(0);
+
+    /**
+     * Static calls with their callees.
+     */
+    private final List<StaticCall> staticCalls = new ArrayList<>(0);
+
+    /**
+     * Calls to taint sources with the types of taint objects.
+     */
+    private final List<Source> sources = new ArrayList<>(0);
+
+    /**
+     * Calls to taint sinks.
+     */
+    private final List<Invoke> sinks = new ArrayList<>(0);
+
+    MethodSummary(JMethod method, HeapModel heapModel,
+                  TaintAnalysiss taintAnalysis) {
+        for (Stmt stmt : method.getIR()) {
+            if (stmt instanceof New newStmt) {
+                allocs.add(new Alloc(newStmt.getLValue(), heapModel.getObj(newStmt)));
+            } else if (stmt instanceof Copy copy) {
+                assigns.add(new Assign(copy.getRValue(), copy.getLValue(), null));
+            } else if (stmt instanceof Cast cast) {
+                CastExp exp = cast.getRValue();
+                assigns.add(new Assign(exp.getValue(), cast.getLValue(),
+                        exp.getCastType()));
+            } else if (stmt instanceof LoadField load) {
+                JField field = load.getFieldRef().resolve();
+                if (load.isStatic()) {
+                    staticLoads.add(new StaticFieldVar(field, load.getLValue()));
+                } else {
+                    Var base = ((InstanceFieldAccess) load.getFieldAccess()).getBase();
+                    loadFields.add(new FieldVar(base, field, load.getLValue()));
+                }
+            } else if (stmt instanceof StoreField store) {
+                JField field = store.getFieldRef().resolve();
+                if (store.isStatic()) {
+                    staticStores.add(new StaticFieldVar(field, store.getRValue()));
+                } else {
+                    Var base = ((InstanceFieldAccess) store.getFieldAccess()).getBase();
+                    storeFields.add(new FieldVar(base, field, store.getRValue()));
+                }
+            } else if (stmt instanceof LoadArray load) {
+                loadArrays.add(new ArrayVar(
+                        load.getArrayAccess().getBase(), load.getLValue()));
+            } else if (stmt instanceof StoreArray store) {
+                storeArrays.add(new ArrayVar(
+                        store.getArrayAccess().getBase(), store.getRValue()));
+            } else if (stmt instanceof Invoke invoke) {
+                // Taint: sink() and source() may not be static!
+                JMethod callee = invoke.getMethodRef().resolve();
+                if (invoke.isStatic()) {
+                    staticCalls.add(new StaticCall(invoke, callee));
+                }
+                Type type = invoke.getInvokeExp().getType();
+                if (taintAnalysis.inSourceSet(callee, type)) {
+                    sources.add(new Source(invoke, type));
+                } else if (taintAnalysis.getSinkArgIndex(callee) != -1) {
+                    sinks.add(invoke);
+                }
+            }
+        }
+    }
+
+    List<Alloc> getAllocs() {
+        return allocs;
+    }
+
+    List<Assign> getAssigns() {
+        return assigns;
+    }
+
+    List<StaticFieldVar> getStaticLoads() {
+        return staticLoads;
+    }
+
+    List<StaticFieldVar> getStaticStores() {
+        return staticStores;
+    }
+
+    List<FieldVar> getLoadFields() {
+        return loadFields;
+    }
+
+    List<FieldVar> getStoreFields() {
+        return storeFields;
+    }
+
+    List<ArrayVar> getLoadArrays() {
+        return loadArrays;
+    }
+
+    List<ArrayVar> getStoreArrays() {
+        return storeArrays;
+    }
+
+    List<StaticCall> getStaticCalls() {
+        return staticCalls;
+    }
+
+    List<Source> getSources() {
+        return sources;
+    }
+
+    List<Invoke> getSinks() {
+        return sinks;
+    }
+
+    record Alloc(Var var, Obj obj) {
+    }
+
+    /**
+     * An assignment from one variable to another, where castType
+     * is the type of the cast, or null if it is a copy.
+     */
+    record Assign(Var from, Var to, @Nullable Type castType) {
+    }
+
+    record StaticFieldVar(JField field, Var var) {
+    }
+
+    /**
+     * An access to field of the base variable, where var is
+     * the stored variable (for stores) or the loaded variable (for loads).
+     */
+    record FieldVar(Var base, JField field, Var var) {
+    }
+
+    record ArrayVar(Var base, Var var) {
+    }
+
+    record StaticCall(Invoke invoke, JMethod callee) {
+    }
+
+    record Source(Invoke invoke, Type type) {
+    }
+}
@@ -23,13 +23,36 @@
 package pascal.taie.analysis.pta.cs;
 
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.language.type.Type;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.TwoKeyMap;
 
+import javax.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
  * Represents pointer flow graph in context-sensitive pointer analysis.
+ * <p>
+ * The pointers in a strongly connected component (i.e., a copy cycle)
+ * always have the same points-to set, thus such a component can be
+ * collapsed into a single node by {@link #collapseCycles(Pointer)}.
+ * After that, the component is represented by one of its pointers
+ * (see {@link #getRep(Pointer)}), which holds the successors of all
+ * pointers in the component.
+ * <p>
+ * An edge may carry a type filter, and only the objects of the subtypes
+ * of the filter should be propagated along the edge. Such edges do not
+ * force equal points-to sets, thus they are ignored when finding cycles.
  */
 class PointerFlowGraph {
 
@@ -39,19 +62,279 @@ class PointerFlowGraph {
     private final MultiMap<Pointer, Pointer> successors = Maps.newMultiMap();
 
     /**
-     * Adds an edge (source -> target) to this PFG.
+     * Map from (source, target) to the type filter of the edge.
+     * Unfiltered edges are absent from this map.
+     */
+    private final TwoKeyMap<Pointer, Pointer, Type> filters = Maps.newTwoKeyMap();
+
+    /**
+     * Map from a merged pointer to the pointer it has been merged into.
+     * Representatives are absent from this map.
+     */
+    private final Map<Pointer, Pointer> reps = Maps.newMap();
+
+    /**
+     * Map from a representative to the other pointers merged into it.
+     */
+    private final MultiMap<Pointer, Pointer> mergedPointers = Maps.newMultiMap();
+
+    /**
+     * Edges that have been checked for cycles.
+     */
+    private final MultiMap<Pointer, Pointer> checkedEdges = Maps.newMultiMap();
+
+    /**
+     * Number of collapsed strongly connected components.
+     */
+    private int collapsedSCCs = 0;
+
+    /**
+     * Adds an edge (source -> target) to this PFG. If source and target
+     * have been merged into the same node, the edge is ignored.
      *
      * @return true if this PFG changed as a result of the call,
      * otherwise false.
      */
     boolean addEdge(Pointer source, Pointer target) {
-        return successors.put(source, target);
+        return addEdge(source, target, null);
     }
 
     /**
-     * @return successors of given pointer in the PFG.
+     * Adds an edge (source -> target) with given type filter to this PFG.
+     * If the edge already exists with a different filter, the filter is
+     * removed, i.e., the edge is widened to an unfiltered one.
+     *
+     * @param filter the type filter, or null if the edge is unfiltered.
+     * @return true if this PFG changed as a result of the call,
+     * otherwise false.
+     */
+    boolean addEdge(Pointer source, Pointer target, @Nullable Type filter) {
+        source = getRep(source);
+        target = getRep(target);
+        if (source == target) {
+            return false;
+        }
+        if (successors.put(source, target)) {
+            if (filter != null) {
+                filters.put(source, target, filter);
+            }
+            return true;
+        }
+        Type oldFilter = filters.get(source, target);
+        if (oldFilter != null && !oldFilter.equals(filter)) {
+            filters.remove(source, target);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes all edges to given pointers from this PFG. This should not
+     * be used after any cycle has been collapsed, as the pointers of a
+     * collapsed node cannot be separated again.
+     *
+     * @return the sources of the removed edges.
+     */
+    Set<Pointer> removeEdgesInto(Set<Pointer> targets) {
+        assert reps.isEmpty();
+        Set<Pointer> sources = Sets.newSet();
+        for (Pointer source : List.copyOf(successors.keySet())) {
+            for (Pointer target : List.copyOf(successors.get(source))) {
+                if (targets.contains(target)) {
+                    successors.remove(source, target);
+                    filters.remove(source, target);
+                    sources.add(source);
+                }
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * @return the type filter of edge (source -> target), or null if
+     * the edge is unfiltered. The arguments should be as given by
+     * {@link #getSuccsOf(Pointer)}, i.e., a representative and one of
+     * its successors.
+     */
+    @Nullable
+    Type getFilter(Pointer source, Pointer target) {
+        return filters.isEmpty() ? null : filters.get(source, target);
+    }
+
+    /**
+     * @return successors of given pointer in the PFG. The successors may
+     * include pointers that have been merged, thus callers should
+     * map them to their representatives via {@link #getRep(Pointer)}.
      */
     Set<Pointer> getSuccsOf(Pointer pointer) {
-        return successors.get(pointer);
+        return successors.get(getRep(pointer));
+    }
+
+    /**
+     * @return the representative of the node that contains given pointer.
+     * If the pointer has not been merged, returns itself.
+     */
+    Pointer getRep(Pointer pointer) {
+        if (reps.isEmpty()) {
+            return pointer;
+        }
+        Pointer rep = pointer;
+        for (Pointer next; (next = reps.get(rep)) != null; ) {
+            rep = next;
+        }
+        // path compression
+        while (pointer != rep) {
+            Pointer next = reps.put(pointer, rep);
+            pointer = next;
+        }
+        return rep;
+    }
+
+    /**
+     * @return the pointers (other than the representative itself)
+     * that have been merged into given representative.
+     */
+    Set<Pointer> getMergedPointersOf(Pointer rep) {
+        return mergedPointers.get(rep);
+    }
+
+    /**
+     * Marks edge (source -> target) as checked for cycles.
+     *
+     * @return true if the edge has not been checked before, otherwise false.
+     */
+    boolean markChecked(Pointer source, Pointer target) {
+        return checkedEdges.put(source, target);
+    }
+
+    /**
+     * Finds the strongly connected components reachable from given pointer,
+     * and collapses each component that consists of multiple nodes.
+     *
+     * @return the representatives of the collapsed components.
+     */
+    List<Pointer> collapseCycles(Pointer start) {
+        List<List<Pointer>> sccs = findSCCs(getRep(start));
+        List<Pointer> result = new ArrayList<>(sccs.size());
+        for (List<Pointer> scc : sccs) {
+            result.add(collapse(scc));
+        }
+        return result;
+    }
+
+    /**
+     * @return number of strongly connected components collapsed so far.
+     */
+    int getCollapsedSCCs() {
+        return collapsedSCCs;
+    }
+
+    /**
+     * @return number of pointers merged into other pointers so far.
+     */
+    int getMergedNodes() {
+        return reps.size();
+    }
+
+    /**
+     * Tarjan's algorithm (iterative version, to avoid deep recursion)
+     * over the nodes reachable from start.
+     *
+     * @return the non-trivial strongly connected components.
+     */
+    private List<List<Pointer>> findSCCs(Pointer start) {
+        Map<Pointer, Integer> indexes = Maps.newMap();
+        Map<Pointer, Integer> lowLinks = Maps.newMap();
+        Deque<Pointer> sccStack = new ArrayDeque<>();
+        Set<Pointer> onStack = Sets.newSet();
+        Deque<Frame> callStack = new ArrayDeque<>();
+        List<List<Pointer>> sccs = new ArrayList<>();
+        indexes.put(start, 0);
+        lowLinks.put(start, 0);
+        sccStack.push(start);
+        onStack.add(start);
+        callStack.push(new Frame(start, successors.get(start).iterator()));
+        while (!callStack.isEmpty()) {
+            Frame frame = callStack.peek();
+            Pointer node = frame.node();
+            if (frame.succs().hasNext()) {
+                Pointer target = frame.succs().next();
+                if (filters.containsKey(node, target)) {
+                    continue;
+                }
+                Pointer succ = getRep(target);
+                if (!indexes.containsKey(succ)) {
+                    int index = indexes.size();
+                    indexes.put(succ, index);
+                    lowLinks.put(succ, index);
+                    sccStack.push(succ);
+                    onStack.add(succ);
+                    callStack.push(new Frame(succ, successors.get(succ).iterator()));
+                } else if (onStack.contains(succ)) {
+                    lowLinks.put(node, Math.min(lowLinks.get(node), indexes.get(succ)));
+                }
+            } else {
+                callStack.pop();
+                if (!callStack.isEmpty()) {
+                    Pointer caller = callStack.peek().node();
+                    lowLinks.put(caller, Math.min(lowLinks.get(caller), lowLinks.get(node)));
+                }
+                if (lowLinks.get(node).equals(indexes.get(node))) {
+                    List<Pointer> scc = new ArrayList<>();
+                    Pointer member;
+                    do {
+                        member = sccStack.pop();
+                        onStack.remove(member);
+                        scc.add(member);
+                    } while (member != node);
+                    if (scc.size() > 1) {
+                        sccs.add(scc);
+                    }
+                }
+            }
+        }
+        return sccs;
+    }
+
+    /**
+     * Merges the nodes in given strongly connected component
+     * into its first node.
+     *
+     * @return the representative of the component.
+     */
+    private Pointer collapse(List<Pointer> scc) {
+        Pointer rep = scc.get(0);
+        for (int i = 1; i < scc.size(); ++i) {
+            Pointer pointer = scc.get(i);
+            reps.put(pointer, rep);
+            mergedPointers.put(rep, pointer);
+            mergedPointers.putAll(rep, mergedPointers.get(pointer));
+            mergedPointers.removeAll(pointer);
+            for (Pointer succ : successors.get(pointer)) {
+                Type filter = filters.remove(pointer, succ);
+                if (!successors.get(rep).contains(succ)) {
+                    if (filter != null) {
+                        filters.put(rep, succ, filter);
+                    }
+                } else if (!Objects.equals(filter, filters.get(rep, succ))) {
+                    // rep already has the edge, widen it as in addEdge()
+                    filters.remove(rep, succ);
+                }
+            }
+            successors.putAll(rep, successors.get(pointer));
+            successors.removeAll(pointer);
+        }
+        // remove the edges inside the component
+        for (Pointer succ : List.copyOf(successors.get(rep))) {
+            if (getRep(succ) == rep) {
+                successors.remove(rep, succ);
+                filters.remove(rep, succ);
+            }
+        }
+        ++collapsedSCCs;
+        return rep;
+    }
+
+    private record Frame(Pointer node, Iterator<Pointer> succs) {
     }
 }
@@ -31,16 +31,15 @@ import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.PointerAnalysisResultImpl;
 import pascal.taie.analysis.pta.core.cs.CSCallGraph;
 import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.ArrayBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
-import pascal.taie.analysis.pta.core.cs.element.InstanceField;
 import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
-import pascal.taie.analysis.pta.core.cs.element.StaticField;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.heap.Obj;
@@ -48,18 +47,75 @@ import pascal.taie.analysis.pta.plugin.taint.TaintAnalysiss;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.analysis.pta.pts.PointsToSetFactory;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.exp.*;
 import pascal.taie.ir.stmt.*;
-import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
-
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 public class Solver {
 
     private static final Logger logger = LogManager.getLogger(Solver.class);
 
+    /**
+     * Key of the solving time (in milliseconds) in the analysis result.
+     */
+    public static final String SOLVING_TIME = Solver.class.getName() + ".time";
+
+    /**
+     * Key of the number of objects dropped by type filters in the
+     * analysis result; it is stored only if type filtering is enabled.
+     */
+    public static final String FILTERED_OBJECTS =
+            Solver.class.getName() + ".filtered-objects";
+
+    /**
+     * Key of the number of pointers merged into other pointers by
+     * collapsing cycles in the analysis result; it is stored only if
+     * cycle collapsing is enabled.
+     */
+    public static final String MERGED_POINTERS =
+            Solver.class.getName() + ".merged-pointers";
+
+    /**
+     * Key of the number of points-to sets updated by each worker thread
+     * (as a list) in the analysis result; it is stored only if the
+     * analysis runs in parallel.
+     */
+    public static final String PARALLEL_UPDATES =
+            Solver.class.getName() + ".parallel-updates";
+
+    /**
+     * Rounds with fewer pointers than this are processed by the main thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 64;
+
     private final AnalysisOptions options;
 
     private final HeapModel heapModel;
@@ -74,6 +130,53 @@ public class Solver {
 
     private WorkList workList;
 
+    private boolean collapseCycles;
+
+    /**
+     * Budgets of contexts, or null if they are disabled.
+     */
+    private ContextBudget contextBudget;
+
+    /**
+     * Number of worker threads for updating and propagating points-to
+     * sets. The PFG, call graph and work-list are still maintained by
+     * the main thread (see {@link #analyzeInParallel()}).
+     */
+    private int threads;
+
+    /**
+     * The i-th element is the number of points-to sets updated by
+     * the i-th worker thread.
+     */
+    private long[] parallelUpdates;
+
+    /**
+     * Type system for type filters, or null if type filtering is disabled.
+     */
+    private TypeSystem typeSystem;
+
+    /**
+     * Number of objects dropped by type filters. It may be updated by
+     * worker threads.
+     */
+    private final LongAdder filteredObjects = new LongAdder();
+
+    /**
+     * Instance field and array accesses on each context-sensitive variable.
+     */
+    private final Map<CSVar, StmtPlan> stmtPlans = Maps.newMap();
+
+    /**
+     * New reachable methods whose statements are not processed yet.
+     */
+    private final Queue<CSMethod> reachableMethods = new ArrayDeque<>();
+
+    /**
+     * Summaries of the statements of methods, which are shared by
+     * all contexts of the methods.
+     */
+    private final Map<JMethod, MethodSummary> summaries = Maps.newMap();
+
     private TaintAnalysiss taintAnalysis;
 
     private PointerAnalysisResult result;
@@ -98,18 +201,284 @@ public class Solver {
     }
 
     void solve() {
+        long start = System.nanoTime();
         initialize();
+        processEntry();
         analyze();
-        taintAnalysis.onFinish();
+        finish(start);
+    }
+
+    /**
+     * Updates the analysis result after the IR of given methods changed.
+     * The PFG, call graph and points-to sets of last analysis are kept,
+     * and only the facts which may depend on the changed methods are
+     * retracted and derived again:
+     * <ul>
+     *     <li>the points-to sets of the affected pointers are cleared,
+     *     and the PFG edges to them are removed;</li>
+     *     <li>the call edges from the affected methods and from the call
+     *     sites on affected receivers are removed, and an affected method
+     *     stays reachable only if it is an entry or is still called;</li>
+     *     <li>the statements of the methods which contain the affected
+     *     variables or the sources of the removed edges are processed
+     *     again, and so are the objects of their unaffected variables,
+     *     which adds back the removed edges that are still valid.</li>
+     *     <li>the context-sensitive elements of the variables and call
+     *     sites of the replaced IR are removed from the CS manager.</li>
+     * </ul>
+     * Then the work-list is solved from the facts derived above, and the
+     * variables of the methods which become unreachable are removed. If too
+     * many pointers are affected, the whole program is re-analyzed.
+     *
+     * @param changedMethods the methods whose IR may have been replaced
+     *                       since last analysis.
+     */
+    void update(Collection<JMethod> changedMethods) {
+        long start = System.nanoTime();
+        summaries.keySet().removeAll(changedMethods);
+        Set<CSMethod> affectedMethods = Sets.newSet();
+        Set<Pointer> affected = getAffectedPointers(changedMethods, affectedMethods);
+        long nPointers = pointers().count();
+        // the option may be parsed as a double, thus getFloat() is not used
+        Object ratio = options.get("incremental-max-affected-ratio");
+        float maxRatio = ratio != null ? ((Number) ratio).floatValue() : 0.3f;
+        logger.info("Incremental analysis: #affected pointers: {} / #pointers: {}",
+                affected.size(), nPointers);
+        if (contextBudget != null || collapseCycles
+                || affected.size() > maxRatio * nPointers) {
+            // demotions depend on the whole program, and the pointers
+            // of collapsed cycles cannot be separated, so neither of
+            // them can be updated incrementally
+            logger.info("Incremental analysis: re-analyze the whole program");
+            solve();
+            return;
+        }
+        // retract the call edges and the methods
+        for (CSMethod callee : List.copyOf(callGraph.getNodes())) {
+            for (Edge<CSCallSite, CSMethod> edge : List.copyOf(callee.getEdges())) {
+                if (isAffected(edge, affected, affectedMethods)) {
+                    callGraph.removeEdge(edge);
+                }
+            }
+        }
+        affectedMethods.forEach(callGraph::removeReachableMethod);
+        // retract the points-to sets and the PFG edges
+        affected.forEach(p -> p.setPointsToSet(PointsToSetFactory.make()));
+        Set<Pointer> sources = pointerFlowGraph.removeEdgesInto(affected);
+        Set<CSMethod> dirtyMethods = Sets.newSet();
+        dirtyMethods.addAll(affectedMethods);
+        Stream.concat(affected.stream(), sources.stream())
+                .filter(p -> p instanceof CSVar)
+                .forEach(p -> dirtyMethods.add(getCSMethodOf((CSVar) p)));
+        stmtPlans.keySet().removeIf(v -> dirtyMethods.contains(getCSMethodOf(v)));
+        taintAnalysis.sourceInvoke.removeIf(i -> changedMethods.contains(i.getContainer()));
+        taintAnalysis.sinkInvoke.removeIf(i -> changedMethods.contains(i.getContainer()));
+        changedMethods.forEach(csManager::removeStaleElements);
+        result = null;
+        // derive the facts again
+        for (CSMethod csMethod : affectedMethods) {
+            if (callGraph.isEntryMethod(csMethod) || !csMethod.getEdges().isEmpty()) {
+                addReachable(csMethod);
+            }
+        }
+        dirtyMethods.removeAll(affectedMethods);
+        dirtyMethods.removeIf(m -> !callGraph.contains(m));
+        dirtyMethods.forEach(this::processStmts);
+        // handling objects may create variables, thus iterate over a copy
+        for (CSVar csVar : List.copyOf(csManager.getCSVars())) {
+            if (!affected.contains(csVar)
+                    && dirtyMethods.contains(getCSMethodOf(csVar))) {
+                handleNewObjects(csVar, csVar.getPointsToSet());
+            }
+        }
+        Stream.concat(dirtyMethods.stream(), affectedMethods.stream())
+                .filter(callGraph::contains)
+                .flatMap(callGraph::edgesInTo)
+                .forEach(this::reconnect);
+        dirtyMethods.stream()
+                .flatMap(callGraph::callSitesIn)
+                .flatMap(callGraph::edgesOutOf)
+                .forEach(this::reconnect);
+        analyze();
+        // remove the variables of the methods which become unreachable
+        csManager.removeCSVars(csManager.getCSVars()
+                .stream()
+                .filter(v -> {
+                    CSMethod csMethod = getCSMethodOf(v);
+                    return affectedMethods.contains(csMethod)
+                            && !callGraph.contains(csMethod);
+                })
+                .toList());
+        finish(start);
+    }
+
+    /**
+     * @return the pointers whose points-to sets may be changed by changes
+     * of given methods, i.e., the variables of the changed methods and
+     * all pointers which depend on them via the PFG, field and array
+     * accesses, and calls (including the methods they make reachable).
+     * The methods of such calls are added to affectedMethods.
+     */
+    private Set<Pointer> getAffectedPointers(Collection<JMethod> changedMethods,
+                                             Set<CSMethod> affectedMethods) {
+        // group variables by methods, as the IR of changed methods
+        // does not contain the old variables any more
+        MultiMap<JMethod, CSVar> varsOf = Maps.newMultiMap();
+        csManager.getCSVars().forEach(v -> varsOf.put(v.getVar().getMethod(), v));
+        MultiMap<CSMethod, CSMethod> calleesOf = Maps.newMultiMap();
+        callGraph.reachableMethods().forEach(callee -> callGraph.edgesInTo(callee)
+                .forEach(e -> calleesOf.put(e.getCallSite().getContainer(), callee)));
+        Set<Pointer> affected = Sets.newSet();
+        Deque<CSMethod> methodQueue = new ArrayDeque<>();
+        Deque<Pointer> pointerQueue = new ArrayDeque<>();
+        callGraph.reachableMethods()
+                .filter(m -> changedMethods.contains(m.getMethod()))
+                .forEach(methodQueue::add);
+        while (!methodQueue.isEmpty() || !pointerQueue.isEmpty()) {
+            while (!methodQueue.isEmpty()) {
+                CSMethod csMethod = methodQueue.poll();
+                if (affectedMethods.add(csMethod)) {
+                    for (CSVar csVar : varsOf.get(csMethod.getMethod())) {
+                        if (csVar.getContext().equals(csMethod.getContext())) {
+                            pointerQueue.add(csVar);
+                        }
+                    }
+                    methodQueue.addAll(calleesOf.get(csMethod));
+                }
+            }
+            while (!pointerQueue.isEmpty()) {
+                Pointer rep = pointerFlowGraph.getRep(pointerQueue.poll());
+                if (!affected.add(rep)) {
+                    continue;
+                }
+                pointerQueue.addAll(pointerFlowGraph.getSuccsOf(rep));
+                addDependents(rep, pointerQueue, methodQueue);
+                for (Pointer merged : pointerFlowGraph.getMergedPointersOf(rep)) {
+                    affected.add(merged);
+                    pointerQueue.addAll(pointerFlowGraph.getSuccsOf(merged));
+                    addDependents(merged, pointerQueue, methodQueue);
+                }
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Adds the pointers and methods which depend on given pointer other
+     * than via PFG edges, i.e., the fields and array indexes accessed
+     * through it, the results of its calls and taint transfers, and the
+     * callees of the calls on it.
+     */
+    private void addDependents(Pointer pointer, Collection<Pointer> pointers,
+                               Collection<CSMethod> methods) {
+        if (!(pointer instanceof CSVar csVar)) {
+            return;
+        }
+        Context c = csVar.getContext();
+        StmtPlan plan = stmtPlans.get(csVar);
+        if (plan != null) {
+            for (CSObj csObj : csVar.getPointsToSet()) {
+                for (StmtPlan.FieldVar store : plan.getStoreFields()) {
+                    pointers.add(csManager.getInstanceField(csObj, store.field()));
+                }
+                for (StmtPlan.FieldVar load : plan.getLoadFields()) {
+                    pointers.add(load.var());
+                }
+                if (!plan.getStoreArrays().isEmpty()) {
+                    pointers.add(csManager.getArrayIndex(csObj));
+                }
+                pointers.addAll(plan.getLoadArrays());
+            }
+        }
+        for (Invoke invoke : csVar.getVar().getInvokes()) {
+            methods.addAll(callGraph.getCalleesOf(csManager.getCSCallSite(c, invoke)));
+            if (invoke.getLValue() != null) {
+                pointers.add(csManager.getCSVar(c, invoke.getLValue()));
+            }
+        }
+        for (Invoke invoke : csVar.getVar().getArgInvokes()) {
+            if (!invoke.isStatic()) {
+                Var base = ((InvokeInstanceExp) invoke.getInvokeExp()).getBase();
+                pointers.add(csManager.getCSVar(c, base));
+            }
+            if (invoke.getLValue() != null) {
+                pointers.add(csManager.getCSVar(c, invoke.getLValue()));
+            }
+        }
+    }
+
+    /**
+     * @return true if given call edge may be changed by the changed
+     * methods, i.e., its call site is in an affected method, or its
+     * receiver variable is affected.
+     */
+    private boolean isAffected(Edge<CSCallSite, CSMethod> edge,
+                               Set<Pointer> affected,
+                               Set<CSMethod> affectedMethods) {
+        CSCallSite csCallSite = edge.getCallSite();
+        if (affectedMethods.contains(csCallSite.getContainer())) {
+            return true;
+        }
+        return csCallSite.getCallSite().getInvokeExp() instanceof InvokeInstanceExp exp
+                && affected.contains(csManager.getCSVar(
+                csCallSite.getContext(), exp.getBase()));
+    }
+
+    /**
+     * Adds back the facts derived from a call edge which has been kept
+     * by incremental analysis, i.e., the PFG edges of the arguments and
+     * return values, and the receiver objects of the callee.
+     */
+    private void reconnect(Edge<CSCallSite, CSMethod> edge) {
+        CSCallSite csCallSite = edge.getCallSite();
+        Context c = csCallSite.getContext();
+        Invoke invoke = csCallSite.getCallSite();
+        CSMethod callee = edge.getCallee();
+        handleArgAndRet(invoke, c, callee.getMethod(), callee.getContext());
+        if (invoke.getInvokeExp() instanceof InvokeInstanceExp exp) {
+            CSVar base = csManager.getCSVar(c, exp.getBase());
+            for (CSObj recvObj : base.getPointsToSet()) {
+                processCall(base, recvObj);
+            }
+        }
+    }
+
+    /**
+     * @return the context-sensitive method which contains given variable.
+     */
+    private CSMethod getCSMethodOf(CSVar csVar) {
+        return csManager.getCSMethod(csVar.getContext(), csVar.getVar().getMethod());
     }
 
     private void initialize() {
-        csManager = new MapBasedCSManager();
+        csManager = makeCSManager(options.getString("cs-manager"));
+        PointsToSetFactory.setUp(options.getString("pts"),
+                csManager.getObjectIndexer());
         callGraph = new CSCallGraph(csManager);
         pointerFlowGraph = new PointerFlowGraph();
-        workList = new WorkList();
+        workList = new WorkList(options.getBooleanOrDefault("merge-work-list", false));
+        collapseCycles = options.getBooleanOrDefault("collapse-cycles", false);
+        threads = options.get("threads") != null ? options.getInt("threads") : 1;
+        parallelUpdates = new long[threads];
+        int maxContexts = options.get("max-contexts-per-method") != null ?
+                options.getInt("max-contexts-per-method") : 0;
+        int maxVolume = options.get("max-pts-volume-per-method") != null ?
+                options.getInt("max-pts-volume-per-method") : 0;
+        contextBudget = maxContexts > 0 || maxVolume > 0 ?
+                new ContextBudget(maxContexts, maxVolume) : null;
+        typeSystem = options.getBooleanOrDefault("type-filter", false) ?
+                World.get().getTypeSystem() : null;
+        filteredObjects.reset();
+        stmtPlans.clear();
+        reachableMethods.clear();
+        result = null;
         taintAnalysis = new TaintAnalysiss(this);
-        // process program entry, i.e., main method
+    }
+
+    /**
+     * Processes program entry, i.e., main method.
+     */
+    private void processEntry() {
         Context defContext = contextSelector.getEmptyContext();
         JMethod main = World.get().getMainMethod();
         CSMethod csMethod = csManager.getCSMethod(defContext, main);
@@ -117,213 +486,394 @@ public class Solver {
         addReachable(csMethod);
     }
 
+    private void finish(long start) {
+        taintAnalysis.onFinish();
+        getResult().storeResult(SOLVING_TIME,
+                (System.nanoTime() - start) / 1_000_000);
+        if (typeSystem != null) {
+            getResult().storeResult(FILTERED_OBJECTS, filteredObjects.sum());
+        }
+        if (threads > 1) {
+            getResult().storeResult(PARALLEL_UPDATES,
+                    Arrays.stream(parallelUpdates).boxed().toList());
+        }
+        if (collapseCycles) {
+            getResult().storeResult(MERGED_POINTERS,
+                    pointerFlowGraph.getMergedNodes());
+        }
+        logStatistics();
+    }
+
+    /**
+     * @return the context for analyzing callee, i.e., given context
+     * adjusted by the context budget (if enabled).
+     */
+    private Context adjustContext(JMethod callee, Context context) {
+        return contextBudget != null ?
+                contextBudget.adjust(callee, context) : context;
+    }
+
+    /**
+     * @param kind kind of CS manager, i.e., "map" (the default one when
+     *             kind is null) or "array".
+     */
+    private static CSManager makeCSManager(String kind) {
+        if (kind == null || kind.equals("map")) {
+            return new MapBasedCSManager();
+        } else if (kind.equals("array")) {
+            return new ArrayBasedCSManager();
+        } else {
+            throw new ConfigException("Unexpected kind of CS manager: " + kind);
+        }
+    }
+
     /**
      * Processes new reachable context-sensitive method.
+     * Its statements are processed later by
+     * {@link #processReachableMethods()}.
      */
     private void addReachable(CSMethod csMethod) {
         // TODO - finish me
         if(!callGraph.contains(csMethod)) {
             callGraph.addReachableMethod(csMethod);
-
-            List<Stmt> methodStmts = csMethod.getMethod().getIR().getStmts();
-            StmtProcessor stmtProcessor = new StmtProcessor(csMethod);
-            for(Stmt stmt: methodStmts) {
-                stmt.accept(stmtProcessor);
+            if (contextBudget != null) {
+                contextBudget.addContext(csMethod.getMethod());
             }
+            reachableMethods.add(csMethod);
         }
     }
 
     /**
-     * Processes the statements in context-sensitive new reachable methods.
+     * Processes the statements of the queued reachable methods,
+     * including the methods which become reachable meanwhile.
      */
-    private class StmtProcessor implements StmtVisitor<Void> {
-
-        private final CSMethod csMethod;
-
-        private final Context context;
-
-        private StmtProcessor(CSMethod csMethod) {
-            this.csMethod = csMethod;
-            this.context = csMethod.getContext();
-        }
-
-        // TODO - if you choose to implement addReachable()
-        //  via visitor pattern, then finish me
-        @Override
-        public Void visit(New stmt) {
-            // x = new T()
-            Var leftVar = stmt.getLValue();
-            Obj leftObj = heapModel.getObj(stmt);
-
-            CSVar csVarPtr = csManager.getCSVar(this.context, leftVar);
-            Context heapContext = contextSelector.selectHeapContext(this.csMethod, leftObj);
-            CSObj csObj = csManager.getCSObj(heapContext, leftObj);
-
-            PointsToSet newPointsToSet = PointsToSetFactory.make(csObj);
-            workList.addEntry(csVarPtr, newPointsToSet);
-
-            return StmtVisitor.super.visit(stmt);
+    private void processReachableMethods() {
+        while (!reachableMethods.isEmpty()) {
+            CSMethod csMethod = reachableMethods.poll();
+            processStmts(csMethod);
         }
+    }
 
-        @Override
-        public Void visit(Copy stmt) {
-            // x = y
-            Var x = stmt.getLValue();
-            Var y = stmt.getRValue();
-            CSVar xCSVar = csManager.getCSVar(this.context, x);
-            CSVar yCSVar = csManager.getCSVar(this.context, y);
+    /**
+     * @return the summary of method, which is built on first request.
+     */
+    private MethodSummary getSummary(JMethod method) {
+        return summaries.computeIfAbsent(method,
+                m -> new MethodSummary(m, heapModel, taintAnalysis));
+    }
 
-            addPFGEdge(yCSVar, xCSVar);
-            return StmtVisitor.super.visit(stmt);
+    /**
+     * Processes the statements in context-sensitive new reachable method.
+     */
+    private void processStmts(CSMethod csMethod) {
+        Context context = csMethod.getContext();
+        MethodSummary summary = getSummary(csMethod.getMethod());
+        for (MethodSummary.Alloc alloc : summary.getAllocs()) {
+            // x = new T()
+            Context heapContext = contextSelector.selectHeapContext(csMethod, alloc.obj());
+            CSObj csObj = csManager.getCSObj(heapContext, alloc.obj());
+            workList.addEntry(csManager.getCSVar(context, alloc.var()),
+                    PointsToSetFactory.make(csObj));
         }
-
-        @Override
-        public Void visit(Invoke stmt) {
-            if (stmt.getInvokeExp() instanceof InvokeStatic invokeStaticStmt) {
-                JMethod targetMethod = invokeStaticStmt.getMethodRef().resolve();
-
-                Context c = this.context;
-                CSCallSite csCallSite = csManager.getCSCallSite(c, stmt);
-                Context ct = contextSelector.selectContext(csCallSite, targetMethod);
-
-                CSMethod targetCSMethod = csManager.getCSMethod(ct, targetMethod);
-                addReachable(targetCSMethod);
-
-                Edge<CSCallSite, CSMethod> newEdge = new Edge<>(CallGraphs.getCallKind(stmt), csCallSite, targetCSMethod);
-                callGraph.addEdge(newEdge);
-
-                handleArgAndRet(stmt, c, targetMethod, ct);
+        for (MethodSummary.Assign assign : summary.getAssigns()) {
+            // x = y, and x = (T) y which is only handled with type filters
+            if (assign.castType() == null || typeSystem != null) {
+                addPFGEdge(csManager.getCSVar(context, assign.from()),
+                        csManager.getCSVar(context, assign.to()),
+                        assign.castType());
             }
+        }
+        for (MethodSummary.StaticFieldVar load : summary.getStaticLoads()) {
+            // x = T.f
+            addPFGEdge(csManager.getStaticField(load.field()),
+                    csManager.getCSVar(context, load.var()));
+        }
+        for (MethodSummary.StaticFieldVar store : summary.getStaticStores()) {
+            // T.f = y
+            addPFGEdge(csManager.getCSVar(context, store.var()),
+                    csManager.getStaticField(store.field()));
+        }
+        for (MethodSummary.FieldVar load : summary.getLoadFields()) {
+            // y = x.f
+            getStmtPlan(context, load.base()).addLoadField(load.field(),
+                    csManager.getCSVar(context, load.var()));
+        }
+        for (MethodSummary.FieldVar store : summary.getStoreFields()) {
+            // x.f = y
+            getStmtPlan(context, store.base()).addStoreField(store.field(),
+                    csManager.getCSVar(context, store.var()));
+        }
+        for (MethodSummary.ArrayVar load : summary.getLoadArrays()) {
+            // y = x[i]
+            getStmtPlan(context, load.base()).addLoadArray(
+                    csManager.getCSVar(context, load.var()));
+        }
+        for (MethodSummary.ArrayVar store : summary.getStoreArrays()) {
+            // x[i] = y
+            getStmtPlan(context, store.base()).addStoreArray(
+                    csManager.getCSVar(context, store.var()));
+        }
+        for (MethodSummary.StaticCall call : summary.getStaticCalls()) {
+            Invoke stmt = call.invoke();
+            JMethod targetMethod = call.callee();
+            CSCallSite csCallSite = csManager.getCSCallSite(context, stmt);
+            Context ct = adjustContext(targetMethod,
+                    contextSelector.selectContext(csCallSite, targetMethod));
 
-            // Taint: sink() and source() may not be static!
-            JMethod method = stmt.getInvokeExp().getMethodRef().resolve();
-            Type retType = stmt.getInvokeExp().getType();
-            if (taintAnalysis.inSourceSet(method, retType)) {
-                taintAnalysis.sourceInvoke.add(stmt);
+            CSMethod targetCSMethod = csManager.getCSMethod(ct, targetMethod);
+            addReachable(targetCSMethod);
 
-                Obj taintObj = taintAnalysis.makeTaintObj(stmt, retType);
-                CSObj csTaintObj = csManager.getCSObj(contextSelector.getEmptyContext(), taintObj);
+            Edge<CSCallSite, CSMethod> newEdge = new Edge<>(CallGraphs.getCallKind(stmt), csCallSite, targetCSMethod);
+            callGraph.addEdge(newEdge);
 
-                Var left = stmt.getResult();
-                if (left != null) {
-                   workList.addEntry(csManager.getCSVar(context, left), PointsToSetFactory.make(csTaintObj));
-                    // csManager.getCSVar(context, left).getPointsToSet().addObject(csTaintObj);
-                }
-            } else if (taintAnalysis.getSinkArgIndex(method) != -1) {
-                taintAnalysis.sinkInvoke.add(stmt);
-            }
-
-            return StmtVisitor.super.visit(stmt);
+            handleArgAndRet(stmt, context, targetMethod, ct);
         }
+        for (MethodSummary.Source source : summary.getSources()) {
+            Invoke stmt = source.invoke();
+            taintAnalysis.sourceInvoke.add(stmt);
 
-        @Override
-        public Void visit(LoadField stmt) {
-            if (stmt.isStatic()) {
-                CSVar leftVarPointer = csManager.getCSVar(this.context, stmt.getLValue());
+            Obj taintObj = taintAnalysis.makeTaintObj(stmt, source.type());
+            CSObj csTaintObj = csManager.getCSObj(contextSelector.getEmptyContext(), taintObj);
 
-                FieldAccess right = stmt.getFieldAccess();
-                JField rightStaticField = right.getFieldRef().resolve();
-                StaticField rightStaticFieldPointer = csManager.getStaticField(rightStaticField);
-
-                addPFGEdge(rightStaticFieldPointer, leftVarPointer);
+            Var left = stmt.getResult();
+            if (left != null) {
+                workList.addEntry(csManager.getCSVar(context, left), PointsToSetFactory.make(csTaintObj));
             }
-            return StmtVisitor.super.visit(stmt);
         }
+        taintAnalysis.sinkInvoke.addAll(summary.getSinks());
+    }
 
-        @Override
-        public Void visit(StoreField stmt) {
-            if (stmt.isStatic()) {
-                CSVar rightVarPointer = csManager.getCSVar(this.context, stmt.getRValue());
+    private StmtPlan getStmtPlan(Context context, Var var) {
+        return stmtPlans.computeIfAbsent(
+                csManager.getCSVar(context, var), v -> new StmtPlan());
+    }
 
-                FieldAccess left = stmt.getFieldAccess();
-                JField leftStaticField = left.getFieldRef().resolve();
-                StaticField leftStaticFieldPointer = csManager.getStaticField(leftStaticField);
+    /**
+     * Adds an edge "source -> target" to the PFG.
+     */
+    private void addPFGEdge(Pointer source, Pointer target) {
+        // TODO - finish me
+        addPFGEdge(source, target, null);
+    }
 
-                addPFGEdge(rightVarPointer, leftStaticFieldPointer);
+    /**
+     * Adds an edge "source -> target" with given type filter to the PFG.
+     */
+    private void addPFGEdge(Pointer source, Pointer target, @Nullable Type filter) {
+        if (pointerFlowGraph.addEdge(source, target, filter)) {
+            PointsToSet pts = filterObjects(source.getPointsToSet(),
+                    pointerFlowGraph.getFilter(
+                            pointerFlowGraph.getRep(source),
+                            pointerFlowGraph.getRep(target)));
+            if (!pts.isEmpty()) {
+                workList.addEntry(target, pts);
             }
-            return StmtVisitor.super.visit(stmt);
         }
     }
 
     /**
-     * Adds an edge "source -> target" to the PFG.
+     * @return the objects in pts that can be pointed to by a pointer of
+     * type filter, or pts itself if filter is null. Taint objects are
+     * never filtered, as they are markers of taint flows.
      */
-    private void addPFGEdge(Pointer source, Pointer target) {
-        // TODO - finish me
-        if (!pointerFlowGraph.getSuccsOf(source).contains(target)) {
-            pointerFlowGraph.addEdge(source, target);
-            if (!source.getPointsToSet().isEmpty()) {
-                workList.addEntry(target, source.getPointsToSet());
+    private PointsToSet filterObjects(PointsToSet pts, @Nullable Type filter) {
+        if (filter == null) {
+            return pts;
+        }
+        PointsToSet result = PointsToSetFactory.make();
+        for (CSObj csObj : pts) {
+            Obj obj = csObj.getObject();
+            if (typeSystem.isSubtype(filter, obj.getType())
+                    || taintAnalysis.isTaintObj(obj)) {
+                result.addObject(csObj);
+            } else {
+                filteredObjects.increment();
             }
         }
+        return result;
     }
 
     /**
-     * Processes work-list entries until the work-list is empty.
+     * Processes reachable methods and work-list entries until both are empty.
      */
     private void analyze() {
         // TODO - finish me
-        while(!workList.isEmpty()) {
+        if (threads > 1) {
+            analyzeInParallel();
+            return;
+        }
+        while (true) {
+            processReachableMethods();
+            if (workList.isEmpty()) {
+                break;
+            }
             WorkList.Entry entry = workList.pollEntry();
-            Pointer pt = entry.pointer();
+            Pointer pt = pointerFlowGraph.getRep(entry.pointer());
             PointsToSet pts = entry.pointsToSet();
 
             PointsToSet delta = propagate(pt, pts);
-            if (pt instanceof CSVar csVar) {
-                Var x = csVar.getVar();
-                Context c = csVar.getContext();
-                for (CSObj csObj: delta) {
-                    for(StoreField stmt: x.getStoreFields()) {
-                        // x.f = y
-                        CSVar yCSVar = csManager.getCSVar(c, stmt.getRValue());
-
-                        FieldAccess left = stmt.getFieldAccess();
-                        Var leftBase = ((InstanceFieldAccess) left).getBase();
-                        for(CSObj leftCSObj: csManager.getCSVar(c, leftBase).getPointsToSet()) {
-                            InstanceField leftInstancePointer = csManager.getInstanceField(leftCSObj, left.getFieldRef().resolve());
+            handleNewObjectsOfNode(pt, delta);
+        }
+    }
 
-                            addPFGEdge(yCSVar, leftInstancePointer);
-                        }
+    /**
+     * Processes work-list entries in rounds until the work-list is empty.
+     * In each round, all queued entries are taken and grouped by pointers,
+     * and each pointer is handled by one worker thread in two phases:
+     * first, the points-to sets of its entries are merged into a copy;
+     * then, after all copies are made (as the sets of the entries may be
+     * the points-to sets of other pointers in this round), its points-to
+     * set is updated and the delta is propagated to its successors in the
+     * PFG, whose entries are buffered per thread. The PFG, call graph and
+     * work-list are only read by the workers. Then the buffered entries
+     * are added to the work-list, and cycle detection and the handling of
+     * new objects, which change the PFG, call graph and CS manager, are
+     * done sequentially in the order of the pointers. The analysis reaches
+     * the same fixed point as the sequential one.
+     */
+    private void analyzeInParallel() {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            while (true) {
+                processReachableMethods();
+                if (workList.isEmpty()) {
+                    break;
+                }
+                Map<Pointer, List<PointsToSet>> round = new LinkedHashMap<>();
+                while (!workList.isEmpty()) {
+                    WorkList.Entry entry = workList.pollEntry();
+                    round.computeIfAbsent(pointerFlowGraph.getRep(entry.pointer()),
+                                    p -> new ArrayList<>())
+                            .add(entry.pointsToSet());
+                }
+                Pointer[] pointers = round.keySet().toArray(new Pointer[0]);
+                List<List<PointsToSet>> entrySets = new ArrayList<>(round.values());
+                PointsToSet[] sets = new PointsToSet[pointers.length];
+                PointsToSet[] deltas = new PointsToSet[pointers.length];
+                int tasks = pointers.length < PARALLEL_THRESHOLD ? 1 : threads;
+                forEachIndex(executor, tasks, pointers.length, (t, i) -> {
+                    PointsToSet set = PointsToSetFactory.make();
+                    entrySets.get(i).forEach(set::addAll);
+                    sets[i] = set;
+                });
+                List<List<WorkList.Entry>> buffers = new ArrayList<>(tasks);
+                for (int t = 0; t < tasks; ++t) {
+                    buffers.add(new ArrayList<>());
+                }
+                forEachIndex(executor, tasks, pointers.length, (t, i) -> {
+                    deltas[i] = pointers[i].getPointsToSet().addAllDiff(sets[i]);
+                    List<WorkList.Entry> buffer = buffers.get(t);
+                    propagateToSuccessors(pointers[i], deltas[i],
+                            (p, pts) -> buffer.add(new WorkList.Entry(p, pts)));
+                    if (tasks > 1) {
+                        ++parallelUpdates[t];
                     }
-
-                    for(LoadField stmt: x.getLoadFields()) {
-                        // y = x.f
-                        CSVar yCSVar = csManager.getCSVar(c, stmt.getLValue());
-
-                        FieldAccess right = stmt.getFieldAccess();
-                        Var rightBase = ((InstanceFieldAccess) right).getBase();
-                        for(CSObj rightCSObj: csManager.getCSVar(c, rightBase).getPointsToSet()) {
-                            InstanceField rightInstancePointer = csManager.getInstanceField(rightCSObj, right.getFieldRef().resolve());
-
-                            addPFGEdge(rightInstancePointer, yCSVar);
-                        }
+                });
+                buffers.forEach(buffer -> buffer.forEach(entry ->
+                        workList.addEntry(entry.pointer(), entry.pointsToSet())));
+                for (int i = 0; i < pointers.length; ++i) {
+                    if (collapseCycles && !deltas[i].isEmpty()) {
+                        detectCycles(pointers[i], deltas[i]);
                     }
+                    handleNewObjectsOfNode(pointers[i], deltas[i]);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisException("Pointer analysis is interrupted", e);
+        } catch (ExecutionException e) {
+            throw new AnalysisException("Failed to update points-to sets", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
 
-                    for (StoreArray storeArrayStmt: x.getStoreArrays()) {
-                        // x[i] = y
-                        CSVar xCSVar = csManager.getCSVar(c, storeArrayStmt.getLValue().getBase());
-                        CSVar yCSVar = csManager.getCSVar(c, storeArrayStmt.getRValue());
-
-                        for(CSObj leftCSObj: xCSVar.getPointsToSet()) {
-                            ArrayIndex arrayIndexPointer = csManager.getArrayIndex(leftCSObj);
+    /**
+     * Runs given action on indexes 0, ..., n - 1 by given number of tasks,
+     * where task t handles the indexes t, t + tasks, t + 2 * tasks, ...
+     * If there is only one task, it runs in the current thread.
+     */
+    private static void forEachIndex(ExecutorService executor, int tasks, int n,
+                                     IndexAction action)
+            throws InterruptedException, ExecutionException {
+        if (tasks == 1) {
+            for (int i = 0; i < n; ++i) {
+                action.run(0, i);
+            }
+            return;
+        }
+        List<Callable<Void>> callables = new ArrayList<>(tasks);
+        for (int t = 0; t < tasks; ++t) {
+            int task = t;
+            callables.add(() -> {
+                for (int i = task; i < n; i += tasks) {
+                    action.run(task, i);
+                }
+                return null;
+            });
+        }
+        for (Future<Void> future : executor.invokeAll(callables)) {
+            future.get();
+        }
+    }
 
-                            addPFGEdge(yCSVar, arrayIndexPointer);
-                        }
-                    }
+    /**
+     * Action on the i-th element by the t-th task of {@link #forEachIndex}.
+     */
+    @FunctionalInterface
+    private interface IndexAction {
+        void run(int t, int i);
+    }
 
-                    for (LoadArray loadArrayStmt: x.getLoadArrays()) {
-                        // y = x[i]
-                        CSVar yCSVar = csManager.getCSVar(c, loadArrayStmt.getLValue());
-                        CSVar xCSVar = csManager.getCSVar(c, loadArrayStmt.getRValue().getBase());
+    /**
+     * Handles the objects newly pointed to by given node of the PFG,
+     * i.e., by the pointer and the pointers merged into it.
+     */
+    private void handleNewObjectsOfNode(Pointer pointer, PointsToSet delta) {
+        if (!delta.isEmpty()) {
+            handleNewObjects(pointer, delta);
+            for (Pointer merged : pointerFlowGraph.getMergedPointersOf(pointer)) {
+                handleNewObjects(merged, delta);
+            }
+        }
+    }
 
-                        for(CSObj rightCSObj: xCSVar.getPointsToSet()) {
-                            ArrayIndex arrayIndexPointer = csManager.getArrayIndex(rightCSObj);
-                            addPFGEdge(arrayIndexPointer, yCSVar);
+    /**
+     * Handles the objects newly pointed to by given pointer.
+     */
+    private void handleNewObjects(Pointer pointer, PointsToSet delta) {
+        if (pointer instanceof CSVar csVar) {
+            if (contextBudget != null) {
+                contextBudget.addVolume(csVar.getVar().getMethod(), delta.size());
+            }
+            StmtPlan plan = stmtPlans.get(csVar);
+            for (CSObj csObj: delta) {
+                if (plan != null) {
+                    for (StmtPlan.FieldVar store : plan.getStoreFields()) {
+                        // x.f = y
+                        addPFGEdge(store.var(),
+                                csManager.getInstanceField(csObj, store.field()));
+                    }
+                    for (StmtPlan.FieldVar load : plan.getLoadFields()) {
+                        // y = x.f
+                        addPFGEdge(csManager.getInstanceField(csObj, load.field()),
+                                load.var());
+                    }
+                    if (!plan.getStoreArrays().isEmpty()
+                            || !plan.getLoadArrays().isEmpty()) {
+                        ArrayIndex arrayIndex = csManager.getArrayIndex(csObj);
+                        for (CSVar from : plan.getStoreArrays()) {
+                            // x[i] = y
+                            addPFGEdge(from, arrayIndex);
+                        }
+                        for (CSVar to : plan.getLoadArrays()) {
+                            // y = x[i]
+                            addPFGEdge(arrayIndex, to);
                         }
                     }
-
-                    processCall(csVar, csObj);
                 }
+
+                processCall(csVar, csObj);
             }
         }
     }
@@ -335,25 +885,114 @@ public class Solver {
     private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
         // TODO - finish me
 
-        PointsToSet delta = PointsToSetFactory.make();
+        PointsToSet delta = pointer.getPointsToSet().addAllDiff(pointsToSet);
+        propagateDelta(pointer, delta);
+        return delta;
+    }
 
-        PointsToSet ptn = pointer.getPointsToSet();
-        for(CSObj csObj: pointsToSet) {
-            if (!ptn.contains(csObj)) {
-                delta.addObject(csObj);
+    /**
+     * Propagates delta, which has just been added to pt(pointer),
+     * to the successors of pointer.
+     */
+    private void propagateDelta(Pointer pointer, PointsToSet delta) {
+        if (!delta.isEmpty()) {
+            propagateToSuccessors(pointer, delta);
+            if (collapseCycles) {
+                detectCycles(pointer, delta);
             }
         }
+    }
+
+    /**
+     * Adds work-list entries which propagate delta to the successors
+     * of pointer.
+     */
+    private void propagateToSuccessors(Pointer pointer, PointsToSet delta) {
+        propagateToSuccessors(pointer, delta, workList::addEntry);
+    }
 
+    /**
+     * Propagates given delta to the successors of given pointer, and gives
+     * the resulting entries to addEntry instead of the work-list. This only
+     * reads the PFG, thus it can be called by worker threads.
+     */
+    private void propagateToSuccessors(Pointer pointer, PointsToSet delta,
+                                       BiConsumer<Pointer, PointsToSet> addEntry) {
         if (!delta.isEmpty()) {
-            for(CSObj csObj: delta) {
-                ptn.addObject(csObj);
-            }
             for (Pointer sucPointer: pointerFlowGraph.getSuccsOf(pointer)) {
-                workList.addEntry(sucPointer, delta);
+                PointsToSet pts = filterObjects(delta,
+                        pointerFlowGraph.getFilter(pointer, sucPointer));
+                if (!pts.isEmpty()) {
+                    addEntry.accept(sucPointer, pts);
+                }
             }
         }
+    }
 
-        return delta;
+    /**
+     * Lazy cycle detection: after propagating delta from pointer to its
+     * successors, a successor whose points-to set is identical to the one
+     * of pointer (before the propagation) is likely on a cycle with pointer,
+     * and the cycle is searched (once per edge) from that successor.
+     */
+    private void detectCycles(Pointer pointer, PointsToSet delta) {
+        PointsToSet pts = pointer.getPointsToSet();
+        int oldSize = pts.size() - delta.size();
+        List<Pointer> candidates = new ArrayList<>();
+        for (Pointer succ : pointerFlowGraph.getSuccsOf(pointer)) {
+            Pointer sucRep = pointerFlowGraph.getRep(succ);
+            PointsToSet sucPts = sucRep.getPointsToSet();
+            if (sucRep != pointer && !sucPts.isEmpty()
+                    && sucPts.size() == oldSize
+                    && pointerFlowGraph.markChecked(pointer, sucRep)
+                    && pts.getObjects().containsAll(sucPts.getObjects())) {
+                candidates.add(sucRep);
+            }
+        }
+        for (Pointer candidate : candidates) {
+            for (Pointer rep : pointerFlowGraph.collapseCycles(candidate)) {
+                mergePointsToSets(rep);
+            }
+        }
+    }
+
+    /**
+     * Lets all pointers in a collapsed cycle share the points-to set of
+     * the representative. The objects of the other pointers are added to
+     * that set, and each pointer only handles the objects it did not
+     * point to, which are also propagated to the successors of the cycle.
+     */
+    private void mergePointsToSets(Pointer rep) {
+        PointsToSet merged = rep.getPointsToSet();
+        // group the pointers by their old points-to sets, as the pointers
+        // merged by previous collapses already share their sets
+        Map<PointsToSet, List<Pointer>> groups = new IdentityHashMap<>();
+        groups.put(merged, new ArrayList<>(List.of(rep)));
+        for (Pointer pointer : pointerFlowGraph.getMergedPointersOf(rep)) {
+            groups.computeIfAbsent(pointer.getPointsToSet(), s -> new ArrayList<>())
+                    .add(pointer);
+            pointer.setPointsToSet(merged);
+        }
+        PointsToSet added = PointsToSetFactory.make();
+        groups.keySet().forEach(old -> {
+            if (old != merged) {
+                added.addAll(merged.addAllDiff(old));
+            }
+        });
+        PointsToSet changed = PointsToSetFactory.make();
+        groups.forEach((old, pointers) -> {
+            PointsToSet missing = old == merged ? added : PointsToSetFactory.make();
+            if (old != merged) {
+                merged.objects()
+                        .filter(o -> !old.contains(o))
+                        .forEach(missing::addObject);
+            }
+            if (!missing.isEmpty()) {
+                pointers.forEach(p -> handleNewObjects(p, missing));
+                changed.addAll(missing);
+            }
+        });
+        propagateToSuccessors(rep, changed);
     }
 
     /**
@@ -370,36 +1009,24 @@ public class Solver {
 
         // recv taint as arg
         if (taintAnalysis.isTaintObj(varObj)) {
-            for(CSMethod csMethod: callGraph.reachableMethods().toList()) {
-                if (!csMethod.getContext().equals(c)) {
-                    continue;
+            for (Invoke invoke : var.getArgInvokes()) {
+                JMethod method = invoke.getMethodRef().resolve();
+
+                // argToResult example: String s2 = s1.concat(taint);
+                if (!invoke.isStatic() && taintAnalysis.isArgToBase(method)) {
+                    Var base = ((InvokeInstanceExp) invoke.getInvokeExp()).getBase();
+                    CSVar csBase = csManager.getCSVar(c, base);
+                    workList.addEntry(csBase, PointsToSetFactory.make(recvObj));
                 }
-                for(Stmt stmt: csMethod.getMethod().getIR().getStmts()) {
-                    if (stmt instanceof Invoke invoke) {
-                        for(Var arg: invoke.getInvokeExp().getArgs()) {
-                            if (var.equals(arg)) {
-                                JMethod method = invoke.getMethodRef().resolve();
-
-                                // argToResult example: String s2 = s1.concat(taint);
-                                if (!invoke.isStatic() && taintAnalysis.isArgToBase(method)) {
-                                    Var base = ((InvokeInstanceExp) invoke.getInvokeExp()).getBase();
-                                    CSVar csBase = csManager.getCSVar(c, base);
-                                    workList.addEntry(csBase, PointsToSetFactory.make(recvObj));
-                                }
-                                // argToBase example: sb.append(taint);
-                                if (taintAnalysis.isArgToResult(method)) {
-                                    Var result = invoke.getLValue();
-                                    CSVar csResult = csManager.getCSVar(c, result);
-                                    workList.addEntry(csResult, PointsToSetFactory.make(recvObj));
-                                }
-                            }
-                        }
-                    }
+                // argToBase example: sb.append(taint);
+                if (taintAnalysis.isArgToResult(method)) {
+                    Var result = invoke.getLValue();
+                    CSVar csResult = csManager.getCSVar(c, result);
+                    workList.addEntry(csResult, PointsToSetFactory.make(recvObj));
                 }
             }
         }
 
-
         for(Invoke invokeStmt: var.getInvokes()) {
             // recv taint as base
             if (taintAnalysis.isTaintObj(varObj)) {
@@ -415,7 +1042,8 @@ public class Solver {
 
             // the csCallSiteContext includes the context and the line number of the call site
             CSCallSite csCallSite = csManager.getCSCallSite(c, invokeStmt);
-            Context ct = contextSelector.selectContext(csCallSite, recvObj, null);
+            Context ct = adjustContext(targetMethod,
+                    contextSelector.selectContext(csCallSite, recvObj, targetMethod));
 
             // handle `this`
             CSVar thisCSVar = csManager.getCSVar(ct, targetMethod.getIR().getThis());
@@ -424,8 +1052,7 @@ public class Solver {
 
             CSMethod targetCSMethod = csManager.getCSMethod(ct, targetMethod);
             Edge<CSCallSite, CSMethod> newEdge = new Edge<>(CallGraphs.getCallKind(invokeStmt), csCallSite, targetCSMethod);
-            if (!callGraph.edgesOutOf(csCallSite).toList().contains(newEdge)) {
-                callGraph.addEdge(newEdge);
+            if (callGraph.addEdge(newEdge)) {
                 addReachable(targetCSMethod);
 
                 handleArgAndRet(invokeStmt, c, targetMethod, ct);
@@ -456,11 +1083,13 @@ public class Solver {
         for (int i = 0; i < params.size(); i++) {
             Var arg = args.get(i);
             Var param = params.get(i);
-            addPFGEdge(csManager.getCSVar(c, arg), csManager.getCSVar(ct, param));
+            addPFGEdge(csManager.getCSVar(c, arg), csManager.getCSVar(ct, param),
+                    typeSystem != null ? param.getType() : null);
         }
         if (receiver != null) {
             for(Var ret: rets) {
-                addPFGEdge(csManager.getCSVar(ct, ret), csManager.getCSVar(c, receiver));
+                addPFGEdge(csManager.getCSVar(ct, ret), csManager.getCSVar(c, receiver),
+                        typeSystem != null ? receiver.getType() : null);
             }
         }
     }
@@ -478,6 +1107,42 @@ public class Solver {
         return CallGraphs.resolveCallee(type, callSite);
     }
 
+    /**
+     * @return all pointers created during the analysis.
+     */
+    private Stream<Pointer> pointers() {
+        return Stream.<Collection<? extends Pointer>>of(
+                        csManager.getCSVars(), csManager.getStaticFields(),
+                        csManager.getInstanceFields(), csManager.getArrayIndexes())
+                .flatMap(Collection::stream);
+    }
+
+    private void logStatistics() {
+        logger.info("Work list: #entries added: {}, #merged: {}",
+                workList.getAddedEntries(), workList.getMergedEntries());
+        if (contextBudget != null) {
+            logger.info("Context budget: #demoted methods: {}",
+                    contextBudget.getDemotedMethods());
+        }
+        if (typeSystem != null) {
+            logger.info("Type filter: #filtered objects: {}", filteredObjects.sum());
+        }
+        if (threads > 1) {
+            logger.info("Parallel: #updated points-to sets per thread: {}",
+                    Arrays.toString(parallelUpdates));
+        }
+        if (collapseCycles) {
+            logger.info("PFG: #collapsed SCCs: {}, #merged nodes: {}",
+                    pointerFlowGraph.getCollapsedSCCs(),
+                    pointerFlowGraph.getMergedNodes());
+        }
+        String sharing = PointsToSetFactory.getSharingStatistics(
+                pointers().map(Pointer::getPointsToSet));
+        if (sharing != null) {
+            logger.info("Points-to set sharing: {}", sharing);
+        }
+    }
+
     public PointerAnalysisResult getResult() {
         if (result == null) {
             result = new PointerAnalysisResultImpl(csManager, callGraph);
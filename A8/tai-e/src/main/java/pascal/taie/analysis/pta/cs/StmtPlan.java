@@ -0,0 +1,99 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.cs;
+
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.language.classes.JField;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The instance field and array accesses on a context-sensitive variable,
+ * with the fields resolved and the other variables bound to the context
+ * of the variable. A plan is built once when the method containing the
+ * variable becomes reachable under the context, so that handling new
+ * objects of the variable needs no further resolution or lookup.
+ */
+class StmtPlan {
+
+    /**
+     * x.f = y, represented by (f, y).
+     */
+    private final List<FieldVar> storeFields = new ArrayList<>(0);
+
+    /**
+     * y = x.f, represented by (f, y).
+     */
+    private final List<FieldVar> loadFields = new ArrayList<>(0);
+
+    /**
+     * x[*] = y, represented by y.
+     */
+    private final List<CSVar> storeArrays = new ArrayList<>(0);
+
+    /**
+     * y = x[*], represented by y.
+     */
+    private final List<CSVar> loadArrays = new ArrayList<>(0);
+
+    void addStoreField(JField field, CSVar from) {
+        storeFields.add(new FieldVar(field, from));
+    }
+
+    void addLoadField(JField field, CSVar to) {
+        loadFields.add(new FieldVar(field, to));
+    }
+
+    void addStoreArray(CSVar from) {
+        storeArrays.add(from);
+    }
+
+    void addLoadArray(CSVar to) {
+        loadArrays.add(to);
+    }
+
+    List<FieldVar> getStoreFields() {
+        return storeFields;
+    }
+
+    List<FieldVar> getLoadFields() {
+        return loadFields;
+    }
+
+    List<CSVar> getStoreArrays() {
+        return storeArrays;
+    }
+
+    List<CSVar> getLoadArrays() {
+        return loadArrays;
+    }
+
+    /**
+     * An access to field of the base variable, where var is
+     * the stored variable (for stores) or the loaded variable (for loads).
+     */
+    record FieldVar(JField field, CSVar var) {
+    }
+}
@@ -24,8 +24,11 @@ package pascal.taie.analysis.pta.cs;
 
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.util.collection.Maps;
 
 import java.util.ArrayDeque;
+import java.util.Map;
 import java.util.Queue;
 
 /**
@@ -35,10 +38,53 @@ class WorkList {
 
     private final Queue<Entry> entries = new ArrayDeque<>();
 
+    /**
+     * If merging is enabled, maps each queued pointer to the points-to set
+     * of its (only) entry in {@link #entries}; otherwise, this field is null.
+     */
+    private final Map<Pointer, PointsToSet> pendingSets;
+
+    /**
+     * Number of entries given to {@link #addEntry}.
+     */
+    private long addedEntries = 0;
+
+    /**
+     * Number of entries merged into the pending entries of their pointers.
+     */
+    private long mergedEntries = 0;
+
+    WorkList() {
+        this(false);
+    }
+
+    /**
+     * @param merge if true, this work list keeps at most one entry for
+     *              each pointer, and merges the points-to sets of the
+     *              entries added for a queued pointer into its pending entry.
+     */
+    WorkList(boolean merge) {
+        pendingSets = merge ? Maps.newMap() : null;
+    }
+
     /**
      * Adds an entry to the work list.
      */
     void addEntry(Pointer pointer, PointsToSet pointsToSet) {
+        ++addedEntries;
+        if (pendingSets != null) {
+            PointsToSet pending = pendingSets.get(pointer);
+            if (pending != null) {
+                pending.addAll(pointsToSet);
+                ++mergedEntries;
+                return;
+            }
+            // copy the given set, as it may be shared by other entries
+            pending = PointsToSetFactory.make();
+            pending.addAll(pointsToSet);
+            pendingSets.put(pointer, pending);
+            pointsToSet = pending;
+        }
         entries.add(new Entry(pointer, pointsToSet));
     }
 
@@ -47,7 +93,26 @@ class WorkList {
      * if this work list is empty.
      */
     Entry pollEntry() {
-        return entries.poll();
+        Entry entry = entries.poll();
+        if (entry != null && pendingSets != null) {
+            pendingSets.remove(entry.pointer());
+        }
+        return entry;
+    }
+
+    /**
+     * @return the number of entries added to this work list.
+     */
+    long getAddedEntries() {
+        return addedEntries;
+    }
+
+    /**
+     * @return the number of added entries that were merged into
+     * pending entries instead of being queued.
+     */
+    long getMergedEntries() {
+        return mergedEntries;
     }
 
     /**
@@ -0,0 +1,727 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.plugin;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.InstanceField;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.element.StaticField;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Binary snapshot of pointer analysis result, i.e., the points-to sets of
+ * variables, instance fields, array indexes and static fields, and the
+ * context-sensitive call graph. A snapshot is written by
+ * {@link #write(PointerAnalysisResult, String)}, and later analyses
+ * (in other processes) can {@link #load(String)} it and query points-to
+ * sets without running pointer analysis again.
+ * <p>
+ * The snapshot file is memory-mapped and nothing is decoded on loading:
+ * the strings are sorted, and the entries of each section are of fixed
+ * size and sorted by their keys, so that the queries binary-search the
+ * mapped file, and only the strings and objects they visit are decoded.
+ * As the file is mapped as one buffer, its size is limited to 2 GB.
+ * <p>
+ * Program elements are identified by their signatures (and indexes in
+ * the IR of their methods), so the queries require the same program
+ * to be built in {@link World}. Objects and contexts are represented
+ * by their string representations.
+ */
+public class PointsToSnapshot {
+
+    private static final Logger logger = LogManager.getLogger(PointsToSnapshot.class);
+
+    private static final int MAGIC = 0x54414950; // "TAIP"
+
+    private static final int VERSION = 2;
+
+    /**
+     * Offsets of the strings in {@link #stringData}. The i-th string
+     * ends at the (i+1)-th offset.
+     */
+    private final IntBuffer stringOffsets;
+
+    /**
+     * UTF-8 bytes of the strings, which are sorted.
+     */
+    private final ByteBuffer stringData;
+
+    /**
+     * The ints following the string table, i.e., the sections and
+     * the points-to sets referred to by them.
+     */
+    private final IntBuffer body;
+
+    /**
+     * Entries: (description, type, container method) of each object.
+     */
+    private final Section objSection;
+
+    /**
+     * Entries: (context, object) of each CS object.
+     */
+    private final Section csObjSection;
+
+    /**
+     * Entries: (method, index of variable, context, points-to set),
+     * sorted by method and index.
+     */
+    private final Section varSection;
+
+    /**
+     * Entries: (CS object, field, points-to set), sorted by CS object
+     * and field.
+     */
+    private final Section instanceFieldSection;
+
+    /**
+     * Entries: (CS object, points-to set), sorted by CS object.
+     */
+    private final Section arrayIndexSection;
+
+    /**
+     * Entries: (field, points-to set), sorted by field.
+     */
+    private final Section staticFieldSection;
+
+    /**
+     * Entries: (container method, index of call site, context,
+     * callee context, callee), sorted by container method and index.
+     */
+    private final Section callEdgeSection;
+
+    /**
+     * Strings decoded so far.
+     */
+    private final String[] strings;
+
+    /**
+     * Objects decoded so far.
+     */
+    private final SnapshotObj[] objs;
+
+    private PointsToSnapshot(IntBuffer stringOffsets, ByteBuffer stringData,
+                             IntBuffer body) {
+        this.stringOffsets = stringOffsets;
+        this.stringData = stringData;
+        this.body = body;
+        strings = new String[stringOffsets.limit() - 1];
+        objSection = new Section(body, 0, 3, 0);
+        csObjSection = new Section(body, objSection.end(), 2, 0);
+        varSection = new Section(body, csObjSection.end(), 4, 2);
+        instanceFieldSection = new Section(body, varSection.end(), 3, 2);
+        arrayIndexSection = new Section(body, instanceFieldSection.end(), 2, 1);
+        staticFieldSection = new Section(body, arrayIndexSection.end(), 2, 1);
+        callEdgeSection = new Section(body, staticFieldSection.end(), 5, 2);
+        objs = new SnapshotObj[objSection.size()];
+    }
+
+    /**
+     * Writes given pointer analysis result to file.
+     */
+    public static void write(PointerAnalysisResult result, String file) {
+        logger.info("Writing points-to snapshot to {} ...", file);
+        new Encoder(result).write(Path.of(file));
+    }
+
+    /**
+     * Loads the snapshot from file.
+     */
+    public static PointsToSnapshot load(String file) {
+        logger.info("Loading points-to snapshot from {} ...", file);
+        try (FileChannel channel = FileChannel.open(Path.of(file),
+                StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new AnalysisException("Points-to snapshot " + file +
+                        " is too large to be mapped (" + channel.size() +
+                        " bytes), the maximum size is 2 GB");
+            }
+            // the mapping remains valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new AnalysisException(file + " is not a points-to snapshot" +
+                        " of version " + VERSION);
+            }
+            int nStrings = buffer.getInt();
+            IntBuffer stringOffsets = buffer.slice().asIntBuffer().limit(nStrings + 1);
+            buffer.position(buffer.position() + (nStrings + 1) * 4);
+            int dataSize = stringOffsets.get(nStrings);
+            ByteBuffer stringData = buffer.slice().limit(dataSize);
+            buffer.position(buffer.position() + align(dataSize));
+            return new PointsToSnapshot(stringOffsets, stringData,
+                    buffer.slice().asIntBuffer());
+        } catch (IOException e) {
+            throw new AnalysisException("Failed to load points-to snapshot from " + file, e);
+        }
+    }
+
+    /**
+     * @return all objects in the snapshot.
+     */
+    public List<Obj> getObjects() {
+        return new AbstractList<>() {
+            @Override
+            public Obj get(int index) {
+                return getObj(index);
+            }
+
+            @Override
+            public int size() {
+                return objs.length;
+            }
+        };
+    }
+
+    /**
+     * @return context-insensitive points-to set of given variable.
+     */
+    public Set<Obj> getPointsToSet(Var var) {
+        Set<Obj> result = Sets.newHybridSet();
+        forEachCSObj(var, csObj -> result.add(getObjOf(csObj)));
+        return result;
+    }
+
+    /**
+     * @return context-insensitive points-to set of base.field.
+     */
+    public Set<Obj> getPointsToSet(Var base, JField field) {
+        Set<Obj> result = Sets.newHybridSet();
+        int fieldId = getStringId(field.getSignature());
+        if (fieldId >= 0) {
+            forEachCSObj(base, csObj -> instanceFieldSection.forEach(csObj, fieldId,
+                    pos -> forEachCSObj(body.get(pos + 2),
+                            o -> result.add(getObjOf(o)))));
+        }
+        return result;
+    }
+
+    /**
+     * @return points-to set of given static field.
+     */
+    public Set<Obj> getPointsToSet(JField field) {
+        Set<Obj> result = Sets.newHybridSet();
+        int fieldId = getStringId(field.getSignature());
+        if (fieldId >= 0) {
+            staticFieldSection.forEach(fieldId, 0, pos -> forEachCSObj(
+                    body.get(pos + 1), o -> result.add(getObjOf(o))));
+        }
+        return result;
+    }
+
+    /**
+     * @return context-insensitive points-to set of base[*].
+     */
+    public Set<Obj> getArrayPointsToSet(Var base) {
+        Set<Obj> result = Sets.newHybridSet();
+        forEachCSObj(base, csObj -> arrayIndexSection.forEach(csObj, 0,
+                pos -> forEachCSObj(body.get(pos + 1),
+                        o -> result.add(getObjOf(o)))));
+        return result;
+    }
+
+    /**
+     * @return the callees of given call site (in any context).
+     */
+    public Set<JMethod> getCalleesOf(Invoke callSite) {
+        int methodId = getStringId(callSite.getContainer().getSignature());
+        if (methodId < 0) {
+            return Set.of();
+        }
+        Set<JMethod> result = Sets.newHybridSet();
+        callEdgeSection.forEach(methodId, callSite.getIndex(), pos ->
+                result.add(World.get().getClassHierarchy()
+                        .getMethod(getString(body.get(pos + 4)))));
+        return result;
+    }
+
+    private void forEachCSObj(Var var, IntConsumer action) {
+        int methodId = getStringId(var.getMethod().getSignature());
+        if (methodId >= 0) {
+            varSection.forEach(methodId, var.getIndex(),
+                    pos -> forEachCSObj(body.get(pos + 3), action));
+        }
+    }
+
+    /**
+     * Applies action to each CS object of the points-to set at given position.
+     */
+    private void forEachCSObj(int pos, IntConsumer action) {
+        for (int i = 0, n = body.get(pos); i < n; ++i) {
+            action.accept(body.get(pos + 1 + i));
+        }
+    }
+
+    private Obj getObjOf(int csObj) {
+        return getObj(body.get(csObjSection.getPosition(csObj) + 1));
+    }
+
+    private SnapshotObj getObj(int id) {
+        SnapshotObj obj = objs[id];
+        if (obj == null) {
+            int pos = objSection.getPosition(id);
+            obj = new SnapshotObj(getString(body.get(pos)),
+                    getString(body.get(pos + 1)), getString(body.get(pos + 2)));
+            objs[id] = obj;
+        }
+        return obj;
+    }
+
+    private String getString(int id) {
+        if (id < 0) {
+            return null;
+        }
+        String s = strings[id];
+        if (s == null) {
+            int offset = stringOffsets.get(id);
+            byte[] bytes = new byte[stringOffsets.get(id + 1) - offset];
+            stringData.get(offset, bytes);
+            s = new String(bytes, StandardCharsets.UTF_8);
+            strings[id] = s;
+        }
+        return s;
+    }
+
+    /**
+     * @return id of given string, or -1 if the snapshot does not contain it.
+     */
+    private int getStringId(String s) {
+        int low = 0;
+        int high = strings.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = getString(mid).compareTo(s);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return n rounded up to a multiple of 4.
+     */
+    private static int align(int n) {
+        return (n + 3) & ~3;
+    }
+
+    /**
+     * A section of the snapshot body, i.e., the number of entries followed
+     * by the entries. The entries are of the same number of ints, and the
+     * first keys ints of them are the keys, by which they are sorted.
+     */
+    private record Section(IntBuffer body, int start, int width, int keys) {
+
+        private int size() {
+            return body.get(start);
+        }
+
+        /**
+         * @return the position after this section.
+         */
+        private int end() {
+            return getPosition(size());
+        }
+
+        /**
+         * @return the position of the i-th entry.
+         */
+        private int getPosition(int i) {
+            return start + 1 + i * width;
+        }
+
+        /**
+         * Applies action to the position of each entry of given keys.
+         * The second key is ignored if the entries have only one key.
+         */
+        private void forEach(int key1, int key2, IntConsumer action) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(mid, key1, key2) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            for (int i = low; i < size() && compare(i, key1, key2) == 0; ++i) {
+                action.accept(getPosition(i));
+            }
+        }
+
+        private int compare(int i, int key1, int key2) {
+            int pos = getPosition(i);
+            int cmp = Integer.compare(body.get(pos), key1);
+            return cmp != 0 || keys < 2 ? cmp :
+                    Integer.compare(body.get(pos + 1), key2);
+        }
+    }
+
+    /**
+     * Encodes a pointer analysis result to the snapshot format.
+     */
+    private static class Encoder {
+
+        /**
+         * Comparator of the entries of sections, which compares
+         * the first two ints (i.e., the keys) of the entries.
+         */
+        private static final Comparator<int[]> BY_KEYS =
+                Comparator.<int[]>comparingInt(e -> e[0])
+                        .thenComparingInt(e -> e.length > 2 ? e[1] : 0);
+
+        private final String[] strings;
+
+        private final Map<String, Integer> stringIds = Maps.newMap();
+
+        private final Map<Obj, Integer> objIds = new LinkedHashMap<>();
+
+        private final Map<CSObj, Integer> csObjIds = new LinkedHashMap<>();
+
+        private final List<int[]> objEntries = new ArrayList<>();
+
+        private final List<int[]> csObjEntries = new ArrayList<>();
+
+        private final List<int[]> varEntries = new ArrayList<>();
+
+        private final List<int[]> instanceFieldEntries = new ArrayList<>();
+
+        private final List<int[]> arrayIndexEntries = new ArrayList<>();
+
+        private final List<int[]> staticFieldEntries = new ArrayList<>();
+
+        private final List<int[]> callEdgeEntries = new ArrayList<>();
+
+        /**
+         * The points-to sets, which are placed after the sections.
+         */
+        private int[] ptsInts = new int[1024];
+
+        private int ptsSize = 0;
+
+        private Encoder(PointerAnalysisResult result) {
+            // assign ids to all objects before writing the object sections
+            result.getCSObjects().forEach(this::getId);
+            Stream.<Collection<? extends Pointer>>of(result.getCSVars(),
+                            result.getInstanceFields(), result.getArrayIndexes(),
+                            result.getStaticFields())
+                    .flatMap(Collection::stream)
+                    .forEach(p -> p.getPointsToSet().forEach(this::getId));
+            List<Edge<CSCallSite, CSMethod>> edges =
+                    result.getCSCallGraph().edges().toList();
+            // collect and sort the strings, so that they can be searched
+            Set<String> sorted = new TreeSet<>();
+            objIds.keySet().forEach(obj -> {
+                sorted.add(obj.toString());
+                sorted.add(obj.getType().getName());
+                obj.getContainerMethod().ifPresent(m -> sorted.add(m.getSignature()));
+            });
+            csObjIds.keySet().forEach(o -> sorted.add(o.getContext().toString()));
+            result.getCSVars().forEach(v -> {
+                sorted.add(v.getContext().toString());
+                sorted.add(v.getVar().getMethod().getSignature());
+            });
+            result.getInstanceFields().forEach(f -> sorted.add(f.getField().getSignature()));
+            result.getStaticFields().forEach(f -> sorted.add(f.getField().getSignature()));
+            edges.forEach(edge -> {
+                sorted.add(edge.getCallSite().getContext().toString());
+                sorted.add(edge.getCallSite().getCallSite().getContainer().getSignature());
+                sorted.add(edge.getCallee().getContext().toString());
+                sorted.add(edge.getCallee().getMethod().getSignature());
+            });
+            strings = sorted.toArray(new String[0]);
+            for (int i = 0; i < strings.length; ++i) {
+                stringIds.put(strings[i], i);
+            }
+            objIds.keySet().forEach(obj -> objEntries.add(new int[]{
+                    getId(obj.toString()),
+                    getId(obj.getType().getName()),
+                    obj.getContainerMethod()
+                            .map(m -> getId(m.getSignature()))
+                            .orElse(-1)
+            }));
+            csObjIds.keySet().forEach(csObj -> csObjEntries.add(new int[]{
+                    getId(csObj.getContext().toString()),
+                    objIds.get(csObj.getObject())
+            }));
+            for (CSVar var : result.getCSVars()) {
+                varEntries.add(new int[]{
+                        getId(var.getVar().getMethod().getSignature()),
+                        var.getVar().getIndex(),
+                        getId(var.getContext().toString()),
+                        addPointsToSet(var.getPointsToSet())
+                });
+            }
+            for (InstanceField field : result.getInstanceFields()) {
+                instanceFieldEntries.add(new int[]{
+                        getId(field.getBase()),
+                        getId(field.getField().getSignature()),
+                        addPointsToSet(field.getPointsToSet())
+                });
+            }
+            for (ArrayIndex arrayIndex : result.getArrayIndexes()) {
+                arrayIndexEntries.add(new int[]{
+                        getId(arrayIndex.getArray()),
+                        addPointsToSet(arrayIndex.getPointsToSet())
+                });
+            }
+            for (StaticField field : result.getStaticFields()) {
+                staticFieldEntries.add(new int[]{
+                        getId(field.getField().getSignature()),
+                        addPointsToSet(field.getPointsToSet())
+                });
+            }
+            for (Edge<CSCallSite, CSMethod> edge : edges) {
+                CSCallSite callSite = edge.getCallSite();
+                CSMethod callee = edge.getCallee();
+                callEdgeEntries.add(new int[]{
+                        getId(callSite.getCallSite().getContainer().getSignature()),
+                        callSite.getCallSite().getIndex(),
+                        getId(callSite.getContext().toString()),
+                        getId(callee.getContext().toString()),
+                        getId(callee.getMethod().getSignature())
+                });
+            }
+            Stream.of(varEntries, instanceFieldEntries, arrayIndexEntries,
+                            staticFieldEntries, callEdgeEntries)
+                    .forEach(entries -> entries.sort(BY_KEYS));
+        }
+
+        private void write(Path path) {
+            byte[][] bytes = new byte[strings.length][];
+            long dataSize = 0;
+            for (int i = 0; i < strings.length; ++i) {
+                bytes[i] = strings[i].getBytes(StandardCharsets.UTF_8);
+                dataSize += bytes[i].length;
+            }
+            List<List<int[]>> sections = List.of(objEntries, csObjEntries,
+                    varEntries, instanceFieldEntries, arrayIndexEntries,
+                    staticFieldEntries, callEdgeEntries);
+            long sectionsSize = 0;
+            for (List<int[]> entries : sections) {
+                sectionsSize += 1 + (entries.isEmpty() ? 0 :
+                        (long) entries.size() * entries.get(0).length);
+            }
+            long fileSize = 12 + 4L * (strings.length + 1) + align(dataSize)
+                    + 4 * (sectionsSize + ptsSize);
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new AnalysisException("Points-to snapshot is too large (" +
+                        fileSize + " bytes), the maximum size is 2 GB");
+            }
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+                buffer.putInt(MAGIC).putInt(VERSION).putInt(strings.length);
+                int offset = 0;
+                for (byte[] b : bytes) {
+                    putInt(channel, buffer, offset);
+                    offset += b.length;
+                }
+                putInt(channel, buffer, offset);
+                for (byte[] b : bytes) {
+                    for (int i = 0; i < b.length; ) {
+                        ensureRemaining(channel, buffer, 1);
+                        int n = Math.min(buffer.remaining(), b.length - i);
+                        buffer.put(b, i, n);
+                        i += n;
+                    }
+                }
+                for (int i = offset; i < align(offset); ++i) {
+                    ensureRemaining(channel, buffer, 1);
+                    buffer.put((byte) 0);
+                }
+                // the points-to sets are referred to by their positions in
+                // the body, thus shift them by the size of the sections
+                int ptsStart = (int) sectionsSize;
+                for (List<int[]> entries : sections) {
+                    putInt(channel, buffer, entries.size());
+                    for (int[] entry : entries) {
+                        boolean hasPts = entries != objEntries
+                                && entries != csObjEntries
+                                && entries != callEdgeEntries;
+                        for (int i = 0; i < entry.length; ++i) {
+                            putInt(channel, buffer, hasPts && i == entry.length - 1 ?
+                                    ptsStart + entry[i] : entry[i]);
+                        }
+                    }
+                }
+                for (int i = 0; i < ptsSize; ++i) {
+                    putInt(channel, buffer, ptsInts[i]);
+                }
+                flush(channel, buffer);
+            } catch (IOException e) {
+                throw new AnalysisException("Failed to write points-to snapshot to " + path, e);
+            }
+        }
+
+        private static long align(long n) {
+            return (n + 3) & ~3L;
+        }
+
+        private static void putInt(FileChannel channel, ByteBuffer buffer,
+                                   int i) throws IOException {
+            ensureRemaining(channel, buffer, 4);
+            buffer.putInt(i);
+        }
+
+        private static void ensureRemaining(FileChannel channel, ByteBuffer buffer,
+                                            int n) throws IOException {
+            if (buffer.remaining() < n) {
+                flush(channel, buffer);
+            }
+        }
+
+        private static void flush(FileChannel channel, ByteBuffer buffer)
+                throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Adds a points-to set to the end of the snapshot.
+         *
+         * @return the position of the set relative to the first set.
+         */
+        private int addPointsToSet(PointsToSet pts) {
+            int pos = ptsSize;
+            addPtsInt(pts.size());
+            for (CSObj csObj : pts) {
+                addPtsInt(getId(csObj));
+            }
+            return pos;
+        }
+
+        private void addPtsInt(int i) {
+            if (ptsSize == ptsInts.length) {
+                ptsInts = Arrays.copyOf(ptsInts, ptsSize * 2);
+            }
+            ptsInts[ptsSize++] = i;
+        }
+
+        private int getId(String s) {
+            return stringIds.get(s);
+        }
+
+        private int getId(CSObj csObj) {
+            objIds.computeIfAbsent(csObj.getObject(), o -> objIds.size());
+            return csObjIds.computeIfAbsent(csObj, o -> csObjIds.size());
+        }
+    }
+
+    /**
+     * Object loaded from a snapshot. Its type and container method
+     * are resolved in current {@link World} on demand.
+     */
+    private static class SnapshotObj implements Obj {
+
+        private final String desc;
+
+        private final String typeName;
+
+        private final String containerMethod;
+
+        private SnapshotObj(String desc, String typeName, String containerMethod) {
+            this.desc = desc;
+            this.typeName = typeName;
+            this.containerMethod = containerMethod;
+        }
+
+        @Override
+        public Type getType() {
+            return World.get().getTypeSystem().getType(typeName);
+        }
+
+        @Override
+        public Object getAllocation() {
+            return desc;
+        }
+
+        @Override
+        public Optional<JMethod> getContainerMethod() {
+            return Optional.ofNullable(containerMethod)
+                    .map(World.get().getClassHierarchy()::getMethod);
+        }
+
+        @Override
+        public Type getContainerType() {
+            return getContainerMethod()
+                    .<Type>map(m -> m.getDeclaringClass().getType())
+                    .orElseGet(this::getType);
+        }
+
+        @Override
+        public String toString() {
+            return desc;
+        }
+    }
+}
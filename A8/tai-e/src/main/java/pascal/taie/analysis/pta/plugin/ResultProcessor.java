@@ -29,6 +29,7 @@ import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.plugin.taint.TaintFlow;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.collection.Streams;
 
@@ -94,6 +95,13 @@ public class ResultProcessor {
                     comparePointsToSet(result, file);
                 }
                 break;
+            case "snapshot":
+                if (file == null) {
+                    throw new ConfigException("Option file is required" +
+                            " to write points-to snapshot");
+                }
+                PointsToSnapshot.write(result, file);
+                break;
         }
     }
 
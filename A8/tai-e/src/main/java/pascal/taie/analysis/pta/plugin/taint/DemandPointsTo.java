@@ -0,0 +1,487 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallGraphs;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.InvokeInstanceExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Demand-driven context-insensitive pointer analysis with taint objects.
+ * <p>
+ * Instead of computing the points-to sets of all pointers, it starts from
+ * the queried variables and follows their incoming flows backwards,
+ * i.e., only the definitions of demanded variables, the stores to the
+ * fields and arrays loaded by them, and the calls which may reach their
+ * methods are processed. Call edges and method reachability are also
+ * resolved on demand, by the points-to sets of the receivers, so the
+ * answers are the same as the ones of whole-program context-insensitive
+ * analysis. All derived facts are kept, so later queries reuse them.
+ * <p>
+ * The candidate callers of each method are given by a CHA call graph,
+ * which is cheap to build as it does not need points-to sets.
+ */
+class DemandPointsTo {
+
+    private final HeapModel heapModel;
+
+    private final TaintAnalysiss taintAnalysis;
+
+    private final ClassHierarchy hierarchy;
+
+    private final JMethod main;
+
+    /**
+     * Call sites in the methods reachable in CHA call graph.
+     */
+    private final List<Invoke> callSites = new ArrayList<>();
+
+    /**
+     * Call sites which may call each method, by CHA.
+     */
+    private final MultiMap<JMethod, Invoke> callersOf = Maps.newMultiMap();
+
+    private final MultiMap<Var, Stmt> defsOf = Maps.newMultiMap();
+
+    private final MultiMap<JField, StoreField> storesOf = Maps.newMultiMap();
+
+    private final List<StoreArray> arrayStores = new ArrayList<>();
+
+    /**
+     * Points-to sets of pointers, i.e., variables, {@link InstanceField},
+     * {@link ArrayIndex} and static fields ({@link JField}).
+     */
+    private final Map<Object, Set<Obj>> pointsToSets = Maps.newMap();
+
+    private final MultiMap<Object, Object> successors = Maps.newMultiMap();
+
+    /**
+     * Actions on the objects pointed to by each variable.
+     */
+    private final Map<Var, List<Consumer<Obj>>> objHandlers = Maps.newMap();
+
+    private final Set<Object> demandedPointers = Sets.newSet();
+
+    private final Set<JField> demandedFields = Sets.newSet();
+
+    private boolean arraysDemanded = false;
+
+    private final Set<JMethod> demandedMethods = Sets.newSet();
+
+    private final Set<JMethod> reachableMethods = Sets.newSet();
+
+    /**
+     * Actions which wait for each method to be reachable.
+     */
+    private final MultiMap<JMethod, Runnable> pendingActions = Maps.newMultiMap();
+
+    private final Deque<Runnable> actions = new ArrayDeque<>();
+
+    private final Deque<Entry> workList = new ArrayDeque<>();
+
+    DemandPointsTo(HeapModel heapModel, TaintAnalysiss taintAnalysis) {
+        this.heapModel = heapModel;
+        this.taintAnalysis = taintAnalysis;
+        this.hierarchy = World.get().getClassHierarchy();
+        this.main = World.get().getMainMethod();
+        buildCHA();
+    }
+
+    /**
+     * @return the call sites in the methods which may be reachable.
+     * Use {@link #isReachable(JMethod)} to check their containers.
+     */
+    List<Invoke> getCallSites() {
+        return Collections.unmodifiableList(callSites);
+    }
+
+    boolean isReachable(JMethod method) {
+        demandMethod(method);
+        solve();
+        return reachableMethods.contains(method);
+    }
+
+    Set<Obj> getPointsToSet(Var var) {
+        demand(var);
+        solve();
+        return Collections.unmodifiableSet(getPts(var));
+    }
+
+    private void buildCHA() {
+        Set<JMethod> visited = Sets.newSet();
+        Deque<JMethod> queue = new ArrayDeque<>();
+        visited.add(main);
+        queue.add(main);
+        while (!queue.isEmpty()) {
+            JMethod method = queue.poll();
+            if (method.isAbstract()) {
+                continue;
+            }
+            for (Stmt stmt : method.getIR()) {
+                if (stmt instanceof New || stmt instanceof Copy
+                        || stmt instanceof LoadField || stmt instanceof LoadArray) {
+                    defsOf.put((Var) stmt.getDef().get(), stmt);
+                } else if (stmt instanceof StoreField store) {
+                    storesOf.put(store.getFieldRef().resolve(), store);
+                } else if (stmt instanceof StoreArray store) {
+                    arrayStores.add(store);
+                } else if (stmt instanceof Invoke invoke) {
+                    if (invoke.getResult() != null) {
+                        defsOf.put(invoke.getResult(), invoke);
+                    }
+                    callSites.add(invoke);
+                    for (JMethod callee : resolveCHACallees(invoke)) {
+                        callersOf.put(callee, invoke);
+                        if (visited.add(callee)) {
+                            queue.add(callee);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private Set<JMethod> resolveCHACallees(Invoke invoke) {
+        Set<JMethod> callees = Sets.newHybridSet();
+        if (invoke.isDynamic()) {
+            // invokedynamic is not handled by pointer analysis either
+            return callees;
+        }
+        MethodRef ref = invoke.getMethodRef();
+        if (invoke.isStatic()) {
+            callees.add(ref.resolve());
+        } else if (invoke.isSpecial()) {
+            addIfNotNull(callees, hierarchy.dispatch(ref.getDeclaringClass(), ref));
+        } else {
+            for (JClass c : hierarchy.getAllSubclassesOf(ref.getDeclaringClass(), true)) {
+                if (!c.isAbstract()) {
+                    addIfNotNull(callees, hierarchy.dispatch(c, ref));
+                }
+            }
+        }
+        return callees;
+    }
+
+    private static void addIfNotNull(Set<JMethod> methods, JMethod method) {
+        if (method != null) {
+            methods.add(method);
+        }
+    }
+
+    /**
+     * Processes the pending actions and work-list entries until
+     * the demanded facts reach fixed point.
+     */
+    private void solve() {
+        while (!actions.isEmpty() || !workList.isEmpty()) {
+            if (!actions.isEmpty()) {
+                actions.poll().run();
+                continue;
+            }
+            Entry entry = workList.poll();
+            Set<Obj> pts = getPts(entry.pointer());
+            List<Obj> delta = new ArrayList<>();
+            for (Obj obj : entry.objs()) {
+                if (pts.add(obj)) {
+                    delta.add(obj);
+                }
+            }
+            if (delta.isEmpty()) {
+                continue;
+            }
+            for (Object succ : successors.get(entry.pointer())) {
+                workList.add(new Entry(succ, delta));
+            }
+            if (entry.pointer() instanceof Var var) {
+                List<Consumer<Obj>> handlers = objHandlers.get(var);
+                if (handlers != null) {
+                    // handlers may be added when running the handlers
+                    for (Consumer<Obj> handler : List.copyOf(handlers)) {
+                        delta.forEach(handler);
+                    }
+                }
+            }
+        }
+    }
+
+    private Set<Obj> getPts(Object pointer) {
+        return pointsToSets.computeIfAbsent(pointer, p -> Sets.newHybridSet());
+    }
+
+    private void addObj(Object pointer, Obj obj) {
+        workList.add(new Entry(pointer, List.of(obj)));
+    }
+
+    private void addEdge(Object source, Object target) {
+        if (successors.put(source, target)) {
+            demand(source);
+            Set<Obj> pts = getPts(source);
+            if (!pts.isEmpty()) {
+                workList.add(new Entry(target, List.copyOf(pts)));
+            }
+        }
+    }
+
+    /**
+     * Runs handler on every object pointed to by var, including the ones
+     * added later.
+     */
+    private void onNewObj(Var var, Consumer<Obj> handler) {
+        objHandlers.computeIfAbsent(var, v -> new ArrayList<>()).add(handler);
+        demand(var);
+        List.copyOf(getPts(var)).forEach(handler);
+    }
+
+    /**
+     * Runs action when method becomes reachable.
+     */
+    private void onReachable(JMethod method, Runnable action) {
+        if (reachableMethods.contains(method)) {
+            actions.add(action);
+        } else {
+            pendingActions.put(method, action);
+            demandMethod(method);
+        }
+    }
+
+    private void markReachable(JMethod method) {
+        if (reachableMethods.add(method)) {
+            actions.addAll(pendingActions.get(method));
+            pendingActions.removeAll(method);
+        }
+    }
+
+    /**
+     * Runs handler when callSite (in reachable method) calls callee.
+     * The handler receives the receiver object of the call,
+     * or null if the call is static.
+     */
+    private void onCall(Invoke callSite, JMethod callee, Consumer<Obj> handler) {
+        onReachable(callSite.getContainer(), () -> {
+            if (callSite.isStatic()) {
+                if (callSite.getMethodRef().resolve().equals(callee)) {
+                    handler.accept(null);
+                }
+            } else if (callSite.getInvokeExp() instanceof InvokeInstanceExp exp) {
+                onNewObj(exp.getBase(), recv -> {
+                    if (!taintAnalysis.isTaintObj(recv)
+                            && callee.equals(CallGraphs.resolveCallee(recv.getType(), callSite))) {
+                        handler.accept(recv);
+                    }
+                });
+            }
+        });
+    }
+
+    private void demandMethod(JMethod method) {
+        if (demandedMethods.add(method)) {
+            if (method.equals(main)) {
+                markReachable(method);
+            } else {
+                for (Invoke callSite : callersOf.get(method)) {
+                    onCall(callSite, method, recv -> markReachable(method));
+                }
+            }
+        }
+    }
+
+    private void demand(Object pointer) {
+        if (!demandedPointers.add(pointer)) {
+            return;
+        }
+        if (pointer instanceof Var var) {
+            onReachable(var.getMethod(), () -> addIncomingFlows(var));
+        } else if (pointer instanceof InstanceField field) {
+            demandField(field.field());
+        } else if (pointer instanceof JField field) {
+            demandField(field);
+        } else if (pointer instanceof ArrayIndex) {
+            demandArrays();
+        }
+    }
+
+    private void demandField(JField field) {
+        if (demandedFields.add(field)) {
+            for (StoreField store : storesOf.get(field)) {
+                Var from = store.getRValue();
+                onReachable(from.getMethod(), () -> {
+                    if (store.isStatic()) {
+                        addEdge(from, field);
+                    } else {
+                        Var base = ((InstanceFieldAccess) store.getFieldAccess()).getBase();
+                        onNewObj(base, obj -> addEdge(from, new InstanceField(obj, field)));
+                    }
+                });
+            }
+        }
+    }
+
+    private void demandArrays() {
+        if (!arraysDemanded) {
+            arraysDemanded = true;
+            for (StoreArray store : arrayStores) {
+                Var from = store.getRValue();
+                onReachable(from.getMethod(), () -> onNewObj(
+                        store.getArrayAccess().getBase(),
+                        obj -> addEdge(from, new ArrayIndex(obj))));
+            }
+        }
+    }
+
+    /**
+     * Adds the flows into var, whose method is reachable.
+     */
+    private void addIncomingFlows(Var var) {
+        JMethod method = var.getMethod();
+        if (var == method.getIR().getThis()) {
+            for (Invoke callSite : callersOf.get(method)) {
+                onCall(callSite, method, recv -> addObj(var, recv));
+            }
+        }
+        int i = method.getIR().getParams().indexOf(var);
+        if (i != -1) {
+            for (Invoke callSite : callersOf.get(method)) {
+                Var arg = callSite.getInvokeExp().getArg(i);
+                onCall(callSite, method, recv -> addEdge(arg, var));
+            }
+        }
+        for (Stmt stmt : defsOf.get(var)) {
+            if (stmt instanceof New newStmt) {
+                addObj(var, heapModel.getObj(newStmt));
+            } else if (stmt instanceof Copy copy) {
+                addEdge(copy.getRValue(), var);
+            } else if (stmt instanceof LoadField load) {
+                JField field = load.getFieldRef().resolve();
+                if (load.isStatic()) {
+                    addEdge(field, var);
+                } else {
+                    Var base = ((InstanceFieldAccess) load.getFieldAccess()).getBase();
+                    onNewObj(base, obj -> addEdge(new InstanceField(obj, field), var));
+                }
+            } else if (stmt instanceof LoadArray load) {
+                onNewObj(load.getArrayAccess().getBase(),
+                        obj -> addEdge(new ArrayIndex(obj), var));
+            } else if (stmt instanceof Invoke invoke) {
+                addResultFlows(invoke, var);
+            }
+        }
+        // taint flows from arguments to base, e.g., sb.append(taint)
+        for (Invoke invoke : var.getInvokes()) {
+            if (!invoke.isStatic() && !invoke.isDynamic() && taintAnalysis.isArgToBase(
+                    invoke.getMethodRef().resolve())) {
+                addTaintFlows(invoke.getInvokeExp().getArgs(), var);
+            }
+        }
+    }
+
+    /**
+     * Adds the flows into result of invoke.
+     */
+    private void addResultFlows(Invoke invoke, Var result) {
+        if (invoke.isDynamic()) {
+            return;
+        }
+        JMethod method = invoke.getMethodRef().resolve();
+        Type type = invoke.getInvokeExp().getType();
+        if (taintAnalysis.inSourceSet(method, type)) {
+            addObj(result, taintAnalysis.makeTaintObj(invoke, type));
+        }
+        if (invoke.isStatic()) {
+            markReachable(method);
+            method.getIR().getReturnVars().forEach(ret -> addEdge(ret, result));
+        } else if (invoke.getInvokeExp() instanceof InvokeInstanceExp exp) {
+            onNewObj(exp.getBase(), recv -> {
+                if (taintAnalysis.isTaintObj(recv)) {
+                    if (taintAnalysis.isBaseToResult(method)) {
+                        addObj(result, recv);
+                    }
+                } else {
+                    JMethod callee = CallGraphs.resolveCallee(recv.getType(), invoke);
+                    if (callee != null) {
+                        markReachable(callee);
+                        callee.getIR().getReturnVars().forEach(ret -> addEdge(ret, result));
+                    }
+                }
+            });
+        }
+        if (taintAnalysis.isArgToResult(method)) {
+            addTaintFlows(invoke.getInvokeExp().getArgs(), result);
+        }
+    }
+
+    private void addTaintFlows(List<Var> from, Var to) {
+        for (Var arg : Set.copyOf(from)) {
+            onNewObj(arg, obj -> {
+                if (taintAnalysis.isTaintObj(obj)) {
+                    addObj(to, obj);
+                }
+            });
+        }
+    }
+
+    private record Entry(Object pointer, List<Obj> objs) {
+    }
+
+    /**
+     * Field of an object.
+     */
+    private record InstanceField(Obj base, JField field) {
+    }
+
+    /**
+     * Array index of an array object.
+     */
+    private record ArrayIndex(Obj array) {
+    }
+}
@@ -26,13 +26,13 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
-import pascal.taie.analysis.pta.core.cs.context.Context;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
-import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.cs.Solver;
+import pascal.taie.config.AnalysisOptions;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.language.classes.JMethod;
@@ -40,6 +40,7 @@ import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
 
 import java.util.*;
+import java.util.function.Function;
 
 public class TaintAnalysiss {
 
@@ -49,12 +50,12 @@ public class TaintAnalysiss {
 
     private final TaintConfig config;
 
+    /**
+     * The whole-program solver, or null if points-to sets are
+     * computed on demand.
+     */
     private final Solver solver;
 
-    private final CSManager csManager;
-
-    private final Context emptyContext;
-
     public Set<Invoke> sinkInvoke = new HashSet<>();
     public Set<Invoke> sourceInvoke = new HashSet<>();
 
@@ -64,15 +65,21 @@ public class TaintAnalysiss {
 
 
     public TaintAnalysiss(Solver solver) {
+        this(solver.getOptions(), solver);
+    }
+
+    private TaintAnalysiss(AnalysisOptions options, Solver solver) {
         manager = new TaintManager();
         this.solver = solver;
-        csManager = solver.getCSManager();
-        emptyContext = solver.getContextSelector().getEmptyContext();
-        config = TaintConfig.readConfig(
-                solver.getOptions().getString("taint-config"),
-                World.get().getClassHierarchy(),
-                World.get().getTypeSystem());
-        logger.info(config);
+        String configPath = options.getString("taint-config");
+        if (configPath != null) {
+            config = TaintConfig.readConfig(configPath,
+                    World.get().getClassHierarchy(),
+                    World.get().getTypeSystem());
+            logger.info(config);
+        } else {
+            config = TaintConfig.EMPTY;
+        }
 
 
         loadTransferFunctions();
@@ -133,20 +140,49 @@ public class TaintAnalysiss {
     }
 
     public void onFinish() {
-        Set<TaintFlow> taintFlows = collectTaintFlows();
-        solver.getResult().storeResult(getClass().getName(), taintFlows);
+        if (config == TaintConfig.EMPTY) {
+            // taint analysis is disabled
+            return;
+        }
+        PointerAnalysisResult result = solver.getResult();
+        Set<TaintFlow> taintFlows = collectTaintFlows(sinkInvoke, result::getPointsToSet);
+        result.storeResult(getClass().getName(), taintFlows);
     }
 
-    private Set<TaintFlow> collectTaintFlows() {
-        Set<TaintFlow> taintFlows = new TreeSet<>();
-        PointerAnalysisResult result = solver.getResult();
-        // TODO - finish me
-        // You could query pointer analysis results you need via variable result.
+    /**
+     * Detects taint flows without whole-program pointer analysis, i.e.,
+     * only the points-to sets of the sink arguments are computed,
+     * by demand-driven context-insensitive pointer analysis.
+     * The points-to sets are shared among the queries of all sinks.
+     */
+    public static Set<TaintFlow> analyzeOnDemand(
+            AnalysisOptions options, HeapModel heapModel) {
+        TaintAnalysiss taintAnalysis = new TaintAnalysiss(options, null);
+        DemandPointsTo pta = new DemandPointsTo(heapModel, taintAnalysis);
+        for (Invoke invoke : pta.getCallSites()) {
+            if (invoke.isDynamic()) {
+                continue;
+            }
+            JMethod method = invoke.getMethodRef().resolve();
+            if (!taintAnalysis.inSourceSet(method, invoke.getInvokeExp().getType())
+                    && taintAnalysis.getSinkArgIndex(method) != -1
+                    && pta.isReachable(invoke.getContainer())) {
+                taintAnalysis.sinkInvoke.add(invoke);
+            }
+        }
+        logger.info("Demand-driven taint analysis: #sinks: {}",
+                taintAnalysis.sinkInvoke.size());
+        return taintAnalysis.collectTaintFlows(
+                taintAnalysis.sinkInvoke, pta::getPointsToSet);
+    }
 
-        for(Invoke invoke: sinkInvoke) {
+    private Set<TaintFlow> collectTaintFlows(
+            Collection<Invoke> sinks, Function<Var, Set<Obj>> pointsTo) {
+        Set<TaintFlow> taintFlows = new TreeSet<>();
+        for(Invoke invoke: sinks) {
             int sinkArgIndex = getSinkArgIndex(invoke.getInvokeExp().getMethodRef().resolve());
             Var var = invoke.getInvokeExp().getArg(sinkArgIndex);
-            for(Obj obj: result.getPointsToSet(var)) {
+            for(Obj obj: pointsTo.apply(var)) {
                 if (manager.isTaint(obj)) {
                     TaintFlow taintFlow = new TaintFlow(manager.getSourceCall(obj), invoke, sinkArgIndex);
                     taintFlows.add(taintFlow);
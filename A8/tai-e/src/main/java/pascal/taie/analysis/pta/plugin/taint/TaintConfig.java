@@ -67,6 +67,13 @@ class TaintConfig {
      */
     private final Set<TaintTransfer> transfers;
 
+    /**
+     * Configuration without any sources, sinks, or transfers,
+     * which is used when taint analysis is disabled.
+     */
+    static final TaintConfig EMPTY = new TaintConfig(
+            Set.of(), Set.of(), Set.of());
+
     private TaintConfig(Set<Source> sources, Set<Sink> sinks,
                         Set<TaintTransfer> transfers) {
         this.sources = sources;
@@ -23,10 +23,13 @@
 package pascal.taie.analysis.pta.pts;
 
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.config.ConfigException;
+import pascal.taie.util.Indexer;
 import pascal.taie.util.collection.Sets;
 
 import java.util.Set;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Provides static factory methods for {@link PointsToSet}.
@@ -35,8 +38,54 @@ public class PointsToSetFactory {
 
     private static final Supplier<Set<CSObj>> setFactory = Sets::newHybridSet;
 
+    /**
+     * Supplier of empty points-to sets, which is configured by {@link #setUp}.
+     */
+    private static Supplier<PointsToSet> ptsFactory = () ->
+            new DelegatePointsToSet(setFactory.get());
+
+    /**
+     * The intern table of hash-consed points-to sets. It is null
+     * unless hash-consing is enabled.
+     */
+    private static SharedPointsToSet.Interner interner;
+
+    /**
+     * Configures the kind of points-to sets made by this factory.
+     * This method should be called before any points-to set is made.
+     *
+     * @param kind       kind of points-to sets, i.e., "hybrid" (hash-based,
+     *                   which is the default one when kind is null), "bit"
+     *                   (bit-vector), or "shared" (hash-consed bit-vector,
+     *                   where identical sets share their contents).
+     * @param objIndexer the indexer of context-sensitive objects.
+     */
+    public static void setUp(String kind, Indexer<CSObj> objIndexer) {
+        interner = null;
+        if (kind == null || kind.equals("hybrid")) {
+            ptsFactory = () -> new DelegatePointsToSet(setFactory.get());
+        } else if (kind.equals("bit")) {
+            ptsFactory = () -> new BitVectorPointsToSet(objIndexer);
+        } else if (kind.equals("shared")) {
+            SharedPointsToSet.Interner sharedInterner =
+                    new SharedPointsToSet.Interner(objIndexer);
+            interner = sharedInterner;
+            ptsFactory = () -> new SharedPointsToSet(sharedInterner);
+        } else {
+            throw new ConfigException("Unexpected kind of points-to sets: " + kind);
+        }
+    }
+
     public static PointsToSet make() {
-        return new DelegatePointsToSet(setFactory.get());
+        return ptsFactory.get();
+    }
+
+    /**
+     * @return statistics about the sharing among given points-to sets,
+     * or null if hash-consing is disabled.
+     */
+    public static String getSharingStatistics(Stream<PointsToSet> sets) {
+        return interner != null ? interner.getStatistics(sets) : null;
     }
 
     /**
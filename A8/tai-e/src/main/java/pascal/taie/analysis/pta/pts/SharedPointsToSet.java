@@ -0,0 +1,200 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.SparseBitSet;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Hash-consed points-to set. The contents of the set are held in an
+ * immutable {@link SparseBitSet} which is interned in an {@link Interner},
+ * so that points-to sets with identical contents share one bit set.
+ * Bulk updates are copy-on-write: they build a new bit set and intern it.
+ * Adding single objects would copy the whole bit set for each object,
+ * thus such additions are done in place on a private copy, which is
+ * interned by the next bulk update.
+ */
+class SharedPointsToSet extends AbstractBitVectorPointsToSet {
+
+    private final Interner interner;
+
+    /**
+     * The bit set of this points-to set. It is interned and must never be
+     * modified, unless {@link #owned} is true.
+     */
+    private SparseBitSet bits;
+
+    /**
+     * Whether {@link #bits} is a private copy which is not interned,
+     * and thus can be modified in place.
+     */
+    private boolean owned = false;
+
+    SharedPointsToSet(Interner interner) {
+        this(interner, interner.emptyBits);
+    }
+
+    private SharedPointsToSet(Interner interner, SparseBitSet bits) {
+        super(interner.indexer);
+        this.interner = interner;
+        this.bits = bits;
+    }
+
+    @Override
+    protected SparseBitSet getBits() {
+        return bits;
+    }
+
+    @Override
+    public boolean addObject(CSObj obj) {
+        int index = indexer.getIndex(obj);
+        if (bits.get(index)) {
+            return false;
+        }
+        if (!owned) {
+            bits = new SparseBitSet(bits);
+            owned = true;
+        }
+        bits.set(index);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(PointsToSet pts) {
+        SparseBitSet other = toBits(pts);
+        if (other == bits) {
+            return false;
+        }
+        SparseBitSet newBits = owned ? bits : new SparseBitSet(bits);
+        boolean changed = newBits.or(other);
+        if (changed || owned) {
+            setInterned(newBits);
+        }
+        return changed;
+    }
+
+    @Override
+    public PointsToSet addAllDiff(PointsToSet pts) {
+        SparseBitSet other = toBits(pts);
+        if (other == bits) {
+            return new SharedPointsToSet(interner);
+        }
+        SparseBitSet newBits = owned ? bits : new SparseBitSet(bits);
+        SparseBitSet diff = newBits.orDiff(other);
+        if (!diff.isEmpty() || owned) {
+            setInterned(newBits);
+        }
+        return diff.isEmpty() ? new SharedPointsToSet(interner) :
+                new SharedPointsToSet(interner, interner.intern(diff));
+    }
+
+    /**
+     * Interns given bit set, and makes it the bit set of this points-to set.
+     */
+    private void setInterned(SparseBitSet newBits) {
+        bits = interner.intern(newBits);
+        owned = false;
+    }
+
+    private SparseBitSet toBits(PointsToSet pts) {
+        if (pts instanceof SharedPointsToSet other) {
+            return other.bits;
+        }
+        SparseBitSet result = new SparseBitSet();
+        for (CSObj obj : pts) {
+            result.set(indexer.getIndex(obj));
+        }
+        return result;
+    }
+
+    /**
+     * Intern table of the bit sets of {@link SharedPointsToSet}s.
+     * The table holds the bit sets weakly, so that the contents that are
+     * no longer referenced by any points-to set can be reclaimed.
+     */
+    static class Interner {
+
+        private final Indexer<CSObj> indexer;
+
+        private final Map<SparseBitSet, WeakReference<SparseBitSet>> table =
+                new WeakHashMap<>();
+
+        private final SparseBitSet emptyBits;
+
+        private long lookups = 0;
+
+        private long hits = 0;
+
+        Interner(Indexer<CSObj> indexer) {
+            this.indexer = indexer;
+            this.emptyBits = intern(new SparseBitSet());
+        }
+
+        /**
+         * @return the canonical bit set that equals to given bit set.
+         * This method is synchronized as points-to sets may be updated
+         * by multiple threads (see the threads option of the solver).
+         */
+        private synchronized SparseBitSet intern(SparseBitSet bits) {
+            ++lookups;
+            WeakReference<SparseBitSet> ref = table.get(bits);
+            SparseBitSet canonical = ref != null ? ref.get() : null;
+            if (canonical != null) {
+                ++hits;
+                return canonical;
+            }
+            table.put(bits, new WeakReference<>(bits));
+            return bits;
+        }
+
+        /**
+         * @return statistics about the sharing among given points-to sets,
+         * which should be made by this interner, and about the intern table.
+         */
+        String getStatistics(Stream<PointsToSet> sets) {
+            Set<SparseBitSet> distinct = Collections.newSetFromMap(
+                    new IdentityHashMap<>());
+            long[] count = { 0 };
+            sets.forEach(pts -> {
+                ++count[0];
+                distinct.add(((SharedPointsToSet) pts).bits);
+            });
+            return String.format("#points-to sets: %d, #distinct: %d" +
+                            " (sharing ratio: %.2f), #interned: %d," +
+                            " #intern lookups: %d (hits: %d)",
+                    count[0], distinct.size(),
+                    distinct.isEmpty() ? 0.0 : (double) count[0] / distinct.size(),
+                    table.size(), lookups, hits);
+        }
+    }
+}
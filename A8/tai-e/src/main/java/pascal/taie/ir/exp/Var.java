@@ -186,6 +186,18 @@ public class Var implements LValue, RValue, Indexable {
         return relevantStmts.getInvokes();
     }
 
+    public void addArgInvoke(Invoke invoke) {
+        ensureRelevantStmts();
+        relevantStmts.addArgInvoke(invoke);
+    }
+
+    /**
+     * @return the invocations that take this variable as an argument.
+     */
+    public List<Invoke> getArgInvokes() {
+        return relevantStmts.getArgInvokes();
+    }
+
     /**
      * Ensure {@link #relevantStmts} points to an instance other than
      * {@link RelevantStmts#EMPTY}.
@@ -203,6 +215,7 @@ public class Var implements LValue, RValue, Indexable {
      * load array: x = v[i];
      * store array: v[i] = x;
      * invocation: v.f();
+     * invocation with argument: x.f(v);
      * We use a separate class to store these relevant statements
      * (instead of directly storing them in {@link Var}) for saving space.
      * Most variables do not have any relevant statements, so these variables
@@ -222,6 +235,7 @@ public class Var implements LValue, RValue, Indexable {
         private List<LoadArray> loadArrays = List.of();
         private List<StoreArray> storeArrays = List.of();
         private List<Invoke> invokes = List.of();
+        private List<Invoke> argInvokes = List.of();
 
         private List<LoadField> getLoadFields() {
             return unmodifiable(loadFields);
@@ -278,6 +292,17 @@ public class Var implements LValue, RValue, Indexable {
             invokes.add(invoke);
         }
 
+        private List<Invoke> getArgInvokes() {
+            return unmodifiable(argInvokes);
+        }
+
+        private void addArgInvoke(Invoke invoke) {
+            if (argInvokes.isEmpty()) {
+                argInvokes = new ArrayList<>(DEFAULT_CAPACITY);
+            }
+            argInvokes.add(invoke);
+        }
+
         private static <T> List<T> unmodifiable(List<T> list) {
             return list.isEmpty() ? list : Collections.unmodifiableList(list);
         }
@@ -70,6 +70,13 @@ public class Invoke extends DefinitionStmt<Var, InvokeExp>
             Var base = ((InvokeInstanceExp) invokeExp).getBase();
             base.addInvoke(this);
         }
+        List<Var> args = invokeExp.getArgs();
+        for (int i = 0; i < args.size(); ++i) {
+            Var arg = args.get(i);
+            if (args.indexOf(arg) == i) { // skip duplicate arguments
+                arg.addArgInvoke(this);
+            }
+        }
         this.container = method;
     }
 
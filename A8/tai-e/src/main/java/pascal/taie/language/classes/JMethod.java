@@ -34,6 +34,7 @@ import pascal.taie.util.AnalysisException;
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -163,6 +164,15 @@ public class JMethod extends ClassMember {
         return ir;
     }
 
+    /**
+     * Replaces the IR of this method, e.g., after its body is edited.
+     * The analyses which have used the old IR should be updated
+     * (see {@link pascal.taie.analysis.pta.cs.CSPTA#reanalyze}).
+     */
+    public void setIR(IR ir) {
+        this.ir = Objects.requireNonNull(ir);
+    }
+
     /**
      * @return the {@link MethodRef} pointing to this method.
      */
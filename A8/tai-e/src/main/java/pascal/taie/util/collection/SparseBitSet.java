@@ -0,0 +1,336 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.util.collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.StringJoiner;
+
+/**
+ * Sparse bit set of non-negative integers.
+ * <p>
+ * Only the non-zero 64-bit words are stored, together with their word
+ * indexes, in two parallel arrays sorted by word index. Compared with
+ * {@link java.util.BitSet}, this representation stays compact when the
+ * elements scatter over a large index range (e.g., points-to sets over
+ * all objects of a program), while the bulk operations {@link #or} and
+ * {@link #orDiff} still work word-at-a-time.
+ */
+public class SparseBitSet {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    private static final int DEFAULT_CAPACITY = 2;
+
+    private static final int[] EMPTY_KEYS = {};
+
+    private static final long[] EMPTY_WORDS = {};
+
+    /**
+     * Word indexes of the non-zero words, in ascending order.
+     */
+    private int[] keys;
+
+    /**
+     * The non-zero words, where words[i] is the word at index keys[i].
+     */
+    private long[] words;
+
+    /**
+     * The number of words in use.
+     */
+    private int wordsInUse;
+
+    /**
+     * The number of set bits.
+     */
+    private int cardinality;
+
+    public SparseBitSet() {
+        keys = EMPTY_KEYS;
+        words = EMPTY_WORDS;
+    }
+
+    /**
+     * Creates a copy of given bit set.
+     */
+    public SparseBitSet(SparseBitSet other) {
+        keys = Arrays.copyOf(other.keys, other.wordsInUse);
+        words = Arrays.copyOf(other.words, other.wordsInUse);
+        wordsInUse = other.wordsInUse;
+        cardinality = other.cardinality;
+    }
+
+    /**
+     * @return true if the bit with given index is set, otherwise false.
+     */
+    public boolean get(int bitIndex) {
+        checkIndex(bitIndex);
+        int i = find(wordIndex(bitIndex));
+        return i >= 0 && (words[i] & (1L << bitIndex)) != 0;
+    }
+
+    /**
+     * Sets the bit with given index.
+     *
+     * @return true if this set changed as a result of the call,
+     * otherwise false.
+     */
+    public boolean set(int bitIndex) {
+        checkIndex(bitIndex);
+        int wordIndex = wordIndex(bitIndex);
+        long mask = 1L << bitIndex;
+        int i = find(wordIndex);
+        if (i >= 0) {
+            if ((words[i] & mask) != 0) {
+                return false;
+            }
+            words[i] |= mask;
+        } else {
+            insertWord(-i - 1, wordIndex, mask);
+        }
+        ++cardinality;
+        return true;
+    }
+
+    /**
+     * Sets all bits that are set in given bit set.
+     *
+     * @return true if this set changed as a result of the call,
+     * otherwise false.
+     */
+    public boolean or(SparseBitSet other) {
+        return merge(other, null);
+    }
+
+    /**
+     * Sets all bits that are set in given bit set, and collects the bits
+     * that were not set in this set before the call.
+     *
+     * @return the bits of {@code other} that are newly set in this set.
+     */
+    public SparseBitSet orDiff(SparseBitSet other) {
+        SparseBitSet diff = new SparseBitSet();
+        merge(other, diff);
+        return diff;
+    }
+
+    /**
+     * @return the number of set bits in this set.
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @return true if no bit is set in this set, otherwise false.
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * @return an iterator over the indexes of the set bits, in ascending order.
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new BitIterator();
+    }
+
+    /**
+     * Merges {@code other} into this set word-at-a-time. If {@code diff}
+     * is not null, the newly set bits are appended to it.
+     */
+    private boolean merge(SparseBitSet other, SparseBitSet diff) {
+        int n = wordsInUse, m = other.wordsInUse;
+        if (m == 0) {
+            return false;
+        }
+        int[] oKeys = other.keys;
+        long[] oWords = other.words;
+        // count the words of the union, so that we can merge in place
+        // when other does not introduce new words
+        int unionSize = 0;
+        for (int i = 0, j = 0; i < n || j < m; ++unionSize) {
+            if (j >= m || (i < n && keys[i] < oKeys[j])) {
+                ++i;
+            } else if (i >= n || keys[i] > oKeys[j]) {
+                ++j;
+            } else {
+                ++i;
+                ++j;
+            }
+        }
+        int addedBits = 0;
+        if (unionSize == n) {
+            for (int i = 0, j = 0; j < m; ++j) {
+                while (keys[i] < oKeys[j]) {
+                    ++i;
+                }
+                long added = oWords[j] & ~words[i];
+                if (added != 0) {
+                    words[i] |= added;
+                    addedBits += Long.bitCount(added);
+                    addDiff(diff, oKeys[j], added);
+                }
+            }
+        } else {
+            int[] newKeys = new int[unionSize];
+            long[] newWords = new long[unionSize];
+            for (int i = 0, j = 0, k = 0; k < unionSize; ++k) {
+                if (j >= m || (i < n && keys[i] < oKeys[j])) {
+                    newKeys[k] = keys[i];
+                    newWords[k] = words[i++];
+                } else if (i >= n || keys[i] > oKeys[j]) {
+                    newKeys[k] = oKeys[j];
+                    newWords[k] = oWords[j];
+                    addedBits += Long.bitCount(oWords[j]);
+                    addDiff(diff, oKeys[j], oWords[j++]);
+                } else {
+                    long added = oWords[j] & ~words[i];
+                    newKeys[k] = keys[i];
+                    newWords[k] = words[i++] | oWords[j++];
+                    if (added != 0) {
+                        addedBits += Long.bitCount(added);
+                        addDiff(diff, newKeys[k], added);
+                    }
+                }
+            }
+            keys = newKeys;
+            words = newWords;
+            wordsInUse = unionSize;
+        }
+        cardinality += addedBits;
+        return addedBits > 0;
+    }
+
+    private void addDiff(SparseBitSet diff, int key, long word) {
+        if (diff != null) {
+            diff.insertWord(diff.wordsInUse, key, word);
+            diff.cardinality += Long.bitCount(word);
+        }
+    }
+
+    private void insertWord(int pos, int key, long word) {
+        if (wordsInUse == keys.length) {
+            int newCapacity = Math.max(DEFAULT_CAPACITY, keys.length * 2);
+            keys = Arrays.copyOf(keys, newCapacity);
+            words = Arrays.copyOf(words, newCapacity);
+        }
+        if (pos < wordsInUse) {
+            System.arraycopy(keys, pos, keys, pos + 1, wordsInUse - pos);
+            System.arraycopy(words, pos, words, pos + 1, wordsInUse - pos);
+        }
+        keys[pos] = key;
+        words[pos] = word;
+        ++wordsInUse;
+    }
+
+    /**
+     * @return the position of given word index in {@link #keys} if present,
+     * otherwise (-(insertion point) - 1).
+     */
+    private int find(int wordIndex) {
+        // fast path for the common case of appending increasing indexes
+        if (wordsInUse > 0 && keys[wordsInUse - 1] < wordIndex) {
+            return -wordsInUse - 1;
+        }
+        return Arrays.binarySearch(keys, 0, wordsInUse, wordIndex);
+    }
+
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    private static void checkIndex(int bitIndex) {
+        if (bitIndex < 0) {
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SparseBitSet that)) {
+            return false;
+        }
+        return cardinality == that.cardinality &&
+                Arrays.equals(keys, 0, wordsInUse, that.keys, 0, that.wordsInUse) &&
+                Arrays.equals(words, 0, wordsInUse, that.words, 0, that.wordsInUse);
+    }
+
+    @Override
+    public int hashCode() {
+        long h = 1234;
+        for (int i = 0; i < wordsInUse; ++i) {
+            h ^= words[i] * (keys[i] + 1);
+        }
+        return (int) ((h >> 32) ^ h);
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        for (PrimitiveIterator.OfInt it = iterator(); it.hasNext(); ) {
+            joiner.add(Integer.toString(it.nextInt()));
+        }
+        return joiner.toString();
+    }
+
+    private class BitIterator implements PrimitiveIterator.OfInt {
+
+        /**
+         * Position of the current word in {@link #keys}.
+         */
+        private int pos = 0;
+
+        /**
+         * Remaining (not yet returned) bits of the current word.
+         */
+        private long word = wordsInUse > 0 ? words[0] : 0;
+
+        @Override
+        public boolean hasNext() {
+            while (word == 0) {
+                if (++pos >= wordsInUse) {
+                    return false;
+                }
+                word = words[pos];
+            }
+            return true;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int bit = Long.numberOfTrailingZeros(word);
+            word &= word - 1;
+            return (keys[pos] << ADDRESS_BITS_PER_WORD) + bit;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta;
+
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.StaticField;
+import pascal.taie.analysis.pta.cs.CSPTA;
+import pascal.taie.analysis.pta.plugin.PointsToSnapshot;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.JField;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests that a points-to snapshot gives the same points-to sets
+ * and call edges as the result it was written from.
+ */
+public class PointsToSnapshotTest {
+
+    private static final String DIR = "src/test/resources/pta/snapshot";
+
+    @Test
+    public void testWriteAndLoad() throws IOException {
+        File file = File.createTempFile("pts", ".snapshot");
+        try {
+            Main.main(new String[]{"-pp", "-cp", DIR, "-m", "Snapshot", "-a",
+                    CSPTA.ID + "=cs:1-obj;implicit-entries:false;" +
+                            "action:snapshot;file:" + file.getPath()});
+            PointerAnalysisResult result = World.get().getResult(CSPTA.ID);
+            PointsToSnapshot snapshot = PointsToSnapshot.load(file.getPath());
+            assertEquals(toStrings(result.getObjects()),
+                    toStrings(snapshot.getObjects()));
+            Set<JField> fields = Sets.newSet();
+            result.getInstanceFields().forEach(f -> fields.add(f.getField()));
+            MultiMap<Var, CSObj> arrays = Maps.newMultiMap();
+            for (CSVar csVar : result.getCSVars()) {
+                csVar.getPointsToSet().forEach(o -> arrays.put(csVar.getVar(), o));
+            }
+            for (Var var : result.getVars()) {
+                assertEquals(toStrings(result.getPointsToSet(var)),
+                        toStrings(snapshot.getPointsToSet(var)));
+                for (JField field : fields) {
+                    assertEquals(toStrings(result.getPointsToSet(var, field)),
+                            toStrings(snapshot.getPointsToSet(var, field)));
+                }
+                Set<String> arrayPts = Sets.newSet();
+                for (ArrayIndex arrayIndex : result.getArrayIndexes()) {
+                    if (arrays.get(var).contains(arrayIndex.getArray())) {
+                        arrayIndex.getPointsToSet().objects()
+                                .forEach(o -> arrayPts.add(o.getObject().toString()));
+                    }
+                }
+                assertEquals(arrayPts, toStrings(snapshot.getArrayPointsToSet(var)));
+            }
+            for (StaticField field : result.getStaticFields()) {
+                assertEquals(toStrings(result.getPointsToSet(field.getField())),
+                        toStrings(snapshot.getPointsToSet(field.getField())));
+            }
+            assertFalse(result.getArrayIndexes().isEmpty());
+            assertFalse(result.getStaticFields().isEmpty());
+            assertFalse(result.getCallGraph().edges().findAny().isEmpty());
+            result.getCallGraph().reachableMethods()
+                    .flatMap(m -> result.getCallGraph().getCallSitesIn(m).stream())
+                    .forEach(callSite -> assertEquals(
+                            toStrings(result.getCallGraph().getCalleesOf(callSite)),
+                            toStrings(snapshot.getCalleesOf(callSite))));
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static Set<String> toStrings(Collection<?> c) {
+        return c.stream()
+                .map(Object::toString)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta;
+
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.cs.CSPTA;
+import pascal.taie.analysis.pta.cs.Solver;
+
+import java.util.List;
+
+/**
+ * Compares context selectors by running context-sensitive pointer analysis
+ * on the test programs, and prints the solving time and the number of
+ * context-sensitive variables of each run. It is not a unit test,
+ * run its main method to benchmark the selectors.
+ */
+public class SelectorBenchmark {
+
+    private static final String CP = "src/test/resources/pta/" + TaintTest.DIR;
+
+    private static final List<String> PROGRAMS = List.of(
+            "ArgToResult", "BaseToResult", "InterTaintTransfer",
+            "OneCallTaint", "SimpleTaint", "StringAppend", "TaintInList");
+
+    private static final List<String> SELECTORS = List.of(
+            "ci", "1-call", "2-call", "1-obj", "2-obj",
+            "1-type", "2-type", "2-hybrid");
+
+    /**
+     * Number of runs of each program and selector, of which
+     * the fastest one is reported.
+     */
+    private static final int RUNS = 3;
+
+    public static void main(String[] args) {
+        List<String> programs = args.length > 0 ? List.of(args) : PROGRAMS;
+        StringBuilder report = new StringBuilder(String.format(
+                "%-20s %-10s %12s %10s%n", "program", "cs", "time (ms)", "#CS vars"));
+        for (String program : programs) {
+            for (String cs : SELECTORS) {
+                long time = Long.MAX_VALUE;
+                int csVars = 0;
+                for (int i = 0; i < RUNS; ++i) {
+                    Main.main(new String[]{
+                            "-pp", "-cp", CP, "-m", program, "-a",
+                            CSPTA.ID + "=cs:" + cs + ";implicit-entries:false;" +
+                                    "only-app:true;taint-config:" + CP + "/taint-config.yml"});
+                    PointerAnalysisResult result = World.get().getResult(CSPTA.ID);
+                    time = Math.min(time, result.<Long>getResult(Solver.SOLVING_TIME));
+                    csVars = result.getCSVars().size();
+                }
+                report.append(String.format("%-20s %-10s %12d %10d%n",
+                        program, cs, time, csVars));
+            }
+        }
+        System.out.print(report);
+    }
+}
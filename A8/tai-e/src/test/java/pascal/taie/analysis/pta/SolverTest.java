@@ -0,0 +1,187 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta;
+
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.cs.CSPTA;
+import pascal.taie.analysis.pta.cs.Solver;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the variants of the solver reach the same result
+ * as the default one.
+ */
+public class SolverTest {
+
+    private static final String DIR = "src/test/resources/pta/solver";
+
+    /**
+     * Runs context-sensitive pointer analysis on given program.
+     *
+     * @return the points-to sets and the call graph edges
+     * of the result, as sorted strings.
+     */
+    private static List<String> analyze(String main, String options) {
+        Main.main(new String[]{"-pp", "-cp", DIR, "-m", main, "-a",
+                CSPTA.ID + "=implicit-entries:false;" + options});
+        return toStrings(World.get().getResult(CSPTA.ID));
+    }
+
+    private static List<String> toStrings(PointerAnalysisResult result) {
+        List<String> lines = new ArrayList<>();
+        Stream.<Collection<? extends Pointer>>of(result.getCSVars(), result.getStaticFields(),
+                        result.getInstanceFields(), result.getArrayIndexes())
+                .flatMap(Collection::stream)
+                .forEach(p -> lines.add(p + " -> " + p.getPointsToSet()
+                        .objects()
+                        .map(CSObj::toString)
+                        .sorted()
+                        .toList()));
+        result.getCSCallGraph().edges()
+                .forEach(edge -> lines.add(edge.toString()));
+        Collections.sort(lines);
+        return lines;
+    }
+
+    @Test
+    public void testParallel() {
+        for (String cs : List.of("ci", "2-obj")) {
+            List<String> expected = analyze("ManyObjects", "cs:" + cs);
+            List<String> given = analyze("ManyObjects", "cs:" + cs + ";threads:4");
+            assertEquals(expected, given);
+            List<Long> updates = World.get().<PointerAnalysisResult>getResult(CSPTA.ID)
+                    .getResult(Solver.PARALLEL_UPDATES);
+            assertEquals(4, updates.size());
+            assertTrue("work is not split among threads: " + updates,
+                    updates.stream().allMatch(n -> n > 0));
+        }
+    }
+
+    @Test
+    public void testCollapseCycles() {
+        for (String cs : List.of("ci", "1-obj")) {
+            List<String> expected = analyze("Cycles", "cs:" + cs);
+            List<String> given = analyze("Cycles", "cs:" + cs + ";collapse-cycles:true");
+            int merged = World.get().<PointerAnalysisResult>getResult(CSPTA.ID)
+                    .getResult(Solver.MERGED_POINTERS);
+            assertTrue("no pointer is merged", merged > 0);
+            assertEquals(expected, given);
+        }
+    }
+
+    @Test
+    public void testPointsToSets() {
+        List<String> expected = analyze("ManyObjects", "cs:2-obj");
+        for (String pts : List.of("bit", "shared")) {
+            assertEquals(expected, analyze("ManyObjects", "cs:2-obj;pts:" + pts));
+        }
+    }
+
+    @Test
+    public void testIncremental() {
+        for (String csManager : List.of("map", "array")) {
+            for (String cs : List.of("ci", "1-obj")) {
+                Main.buildWorld("-pp", "-cp", DIR, "-m", "Incremental");
+                CSPTA pta = makeCSPTA(cs, csManager);
+                List<String> before = toStrings(pta.analyze());
+                JMethod pick = World.get().getClassHierarchy()
+                        .getMethod("<Picker: Item pick(Item,Item)>");
+                List<Var> oldVars = pick.getIR().getVars();
+                returnParam(pick, 1);
+                PointerAnalysisResult result = pta.reanalyze(List.of(pick));
+                assertTrue("pointers of the replaced IR are kept",
+                        result.getCSVars().stream().noneMatch(
+                                v -> oldVars.contains(v.getVar())));
+                List<String> given = toStrings(result);
+                List<String> expected = toStrings(makeCSPTA(cs, csManager).analyze());
+                assertNotEquals(before, expected);
+                assertEquals(expected, given);
+            }
+        }
+    }
+
+    @Test
+    public void testChangedMethods() {
+        List<String> expected = analyze("Incremental", "cs:1-obj");
+        List<String> given = analyze("Incremental", "cs:1-obj;" +
+                "changed-methods:" + DIR + "/Incremental-changed.txt;" +
+                "incremental-max-affected-ratio:1.0");
+        assertEquals(expected, given);
+    }
+
+    /**
+     * @return a pointer analysis which always updates its result
+     * incrementally on {@link CSPTA#reanalyze}.
+     */
+    private static CSPTA makeCSPTA(String cs, String csManager) {
+        return new CSPTA(new AnalysisConfig(CSPTA.ID,
+                "cs", cs,
+                "cs-manager", csManager,
+                "merge-string-constants", false,
+                "merge-string-objects", false,
+                "merge-string-builders", false,
+                "merge-exception-objects", true,
+                "incremental-max-affected-ratio", 1.0));
+    }
+
+    /**
+     * Replaces the IR of given method by one which just returns its i-th
+     * parameter, and whose variables and statements are all new.
+     */
+    private static void returnParam(JMethod method, int i) {
+        Var thisVar = new Var(method, "this",
+                method.getDeclaringClass().getType(), 0);
+        List<Var> params = new ArrayList<>();
+        for (int j = 0; j < method.getParamCount(); ++j) {
+            params.add(new Var(method, "p" + j, method.getParamType(j), j + 1));
+        }
+        List<Var> vars = new ArrayList<>();
+        vars.add(thisVar);
+        vars.addAll(params);
+        Var param = params.get(i);
+        Return ret = new Return(param);
+        ret.setIndex(0);
+        method.setIR(new DefaultIR(method, thisVar, params, Set.of(param),
+                vars, List.of(ret), List.of()));
+    }
+}
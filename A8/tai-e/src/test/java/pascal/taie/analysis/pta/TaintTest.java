@@ -23,7 +23,12 @@
 package pascal.taie.analysis.pta;
 
 import org.junit.Test;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.cs.CSPTA;
+import pascal.taie.analysis.pta.cs.Solver;
+
+import static org.junit.Assert.assertEquals;
 
 public class TaintTest {
 
@@ -70,4 +75,79 @@ public class TaintTest {
         Tests.testCSPTA(DIR, "TaintInList",
                 "cs:2-obj;taint-config:src/test/resources/pta/taint/taint-config.yml");
     }
+
+    @Test
+    public void testTaintInListBitPts() {
+        Tests.testCSPTA(DIR, "TaintInList",
+                "cs:2-obj;pts:bit;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testTaintInListSharedPts() {
+        Tests.testCSPTA(DIR, "TaintInList",
+                "cs:2-obj;pts:shared;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testInterTaintTransferMergeWorkList() {
+        Tests.testCSPTA(DIR, "InterTaintTransfer",
+                "cs:2-call;merge-work-list:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testTaintInListCollapseCycles() {
+        Tests.testCSPTA(DIR, "TaintInList",
+                "cs:2-obj;collapse-cycles:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testInterTaintTransferArrayCSManager() {
+        Tests.testCSPTA(DIR, "InterTaintTransfer",
+                "cs:2-call;cs-manager:array;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testTaintInListParallel() {
+        Tests.testCSPTA(DIR, "TaintInList",
+                "cs:2-obj;threads:4;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testStringAppendParallel() {
+        Tests.testCSPTA(DIR, "StringAppend",
+                "threads:4;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testSimpleTaintDemand() {
+        Tests.testCSPTA(DIR, "SimpleTaint",
+                "demand-taint:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testStringAppendDemand() {
+        Tests.testCSPTA(DIR, "StringAppend",
+                "demand-taint:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testTypeFilter() {
+        Tests.testCSPTA(DIR, "TypeFilter",
+                "cs:1-obj;type-filter:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+        PointerAnalysisResult result = World.get().getResult(CSPTA.ID);
+        // the Object and the StringBuilder do not pass the casts to String
+        assertEquals(2L, (long) result.<Long>getResult(Solver.FILTERED_OBJECTS));
+    }
+
+    @Test
+    public void testTaintInListSelective() {
+        Tests.testCSPTA(DIR, "TaintInList",
+                "cs:2-obj;selective-cs:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
+
+    @Test
+    public void testOneCallTaintSelective() {
+        Tests.testCSPTA(DIR, "OneCallTaint",
+                "cs:1-call;selective-cs:true;taint-config:src/test/resources/pta/taint/taint-config.yml");
+    }
 }
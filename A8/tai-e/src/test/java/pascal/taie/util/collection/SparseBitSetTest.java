@@ -0,0 +1,171 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.util.collection;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class SparseBitSetTest {
+
+    private static SparseBitSet of(int... bits) {
+        SparseBitSet set = new SparseBitSet();
+        for (int bit : bits) {
+            set.set(bit);
+        }
+        return set;
+    }
+
+    private static List<Integer> toList(SparseBitSet set) {
+        List<Integer> list = new ArrayList<>();
+        set.iterator().forEachRemaining((int i) -> list.add(i));
+        return list;
+    }
+
+    @Test
+    public void testSetAndGet() {
+        SparseBitSet set = of(63, 64, 0, Integer.MAX_VALUE, 1 << 20);
+        assertTrue(set.get(0));
+        assertTrue(set.get(63));
+        assertTrue(set.get(64));
+        assertTrue(set.get(1 << 20));
+        assertTrue(set.get(Integer.MAX_VALUE));
+        assertFalse(set.get(62));
+        assertFalse(set.get(65));
+        assertFalse(set.get(127));
+        assertFalse(set.set(64));
+        assertEquals(5, set.cardinality());
+        assertEquals(List.of(0, 63, 64, 1 << 20, Integer.MAX_VALUE), toList(set));
+        assertThrows(IndexOutOfBoundsException.class, () -> set.set(-1));
+    }
+
+    @Test
+    public void testMergeInPlace() {
+        // other has no new words, thus the words are merged in place
+        SparseBitSet set = of(1, 64, 1000);
+        SparseBitSet diff = set.orDiff(of(2, 64, 1001));
+        assertEquals(List.of(1, 2, 64, 1000, 1001), toList(set));
+        assertEquals(List.of(2, 1001), toList(diff));
+        assertEquals(2, diff.cardinality());
+        assertEquals(5, set.cardinality());
+        assertFalse(set.or(of(1, 2, 1001)));
+        assertTrue(set.orDiff(of(64, 1000)).isEmpty());
+    }
+
+    @Test
+    public void testMergeRebuild() {
+        // other has new words before, between and after the words of set
+        SparseBitSet set = of(64, 200);
+        SparseBitSet diff = set.orDiff(of(0, 65, 128, 200, 1 << 25));
+        assertEquals(List.of(0, 64, 65, 128, 200, 1 << 25), toList(set));
+        assertEquals(List.of(0, 65, 128, 1 << 25), toList(diff));
+        assertEquals(6, set.cardinality());
+        assertEquals(4, diff.cardinality());
+        assertTrue(of().or(of(63)));
+        assertFalse(set.or(of()));
+    }
+
+    @Test
+    public void testOrDiffRandom() {
+        Random random = new Random(0);
+        for (int round = 0; round < 200; ++round) {
+            BitSet expected = new BitSet();
+            BitSet added = new BitSet();
+            SparseBitSet set = new SparseBitSet();
+            SparseBitSet other = new SparseBitSet();
+            int bound = round % 2 == 0 ? 256 : 1 << 16;
+            for (int i = 0; i < 20; ++i) {
+                int x = random.nextInt(bound);
+                int y = random.nextInt(bound);
+                set.set(x);
+                expected.set(x);
+                other.set(y);
+                added.set(y);
+            }
+            added.andNot(expected);
+            expected.or(added);
+            SparseBitSet diff = set.orDiff(other);
+            assertEquals(expected.stream().boxed().toList(), toList(set));
+            assertEquals(added.stream().boxed().toList(), toList(diff));
+            assertEquals(expected.cardinality(), set.cardinality());
+            assertEquals(added.cardinality(), diff.cardinality());
+        }
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        // set1 has unused capacity after its words, set2 does not
+        SparseBitSet set1 = of(1, 64, 128, 192, 256);
+        SparseBitSet set2 = new SparseBitSet(set1);
+        assertEquals(set1, set2);
+        assertEquals(set1.hashCode(), set2.hashCode());
+        SparseBitSet set3 = of(256, 192, 128, 64, 1);
+        assertEquals(set1, set3);
+        assertEquals(set1.hashCode(), set3.hashCode());
+        set2.set(2);
+        assertNotEquals(set1, set2);
+        assertNotEquals(of(), of(0));
+        assertEquals(of(), new SparseBitSet(of()));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        SparseBitSet set = of(5);
+        SparseBitSet copy = new SparseBitSet(set);
+        copy.set(6);
+        copy.or(of(1000));
+        assertEquals(List.of(5), toList(set));
+        assertEquals(List.of(5, 6, 1000), toList(copy));
+    }
+
+    @Test
+    public void testIteratorExhaustion() {
+        PrimitiveIterator.OfInt it = of(63, 64).iterator();
+        assertEquals(63, it.nextInt());
+        assertEquals(64, it.nextInt());
+        assertFalse(it.hasNext());
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, it::nextInt);
+        PrimitiveIterator.OfInt empty = of().iterator();
+        assertFalse(empty.hasNext());
+        assertThrows(NoSuchElementException.class, empty::nextInt);
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("{}", of().toString());
+        assertEquals("{3, 64}", of(64, 3).toString());
+    }
+}
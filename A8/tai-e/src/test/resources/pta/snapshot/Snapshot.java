@@ -0,0 +1,52 @@
+class Snapshot {
+
+    static Shape last;
+
+    public static void main(String[] args) {
+        Shape[] shapes = new Shape[2];
+        shapes[0] = new Circle();
+        shapes[1] = new Square();
+        Box b1 = new Box();
+        Box b2 = new Box();
+        for (Shape s : shapes) {
+            b1.put(s);
+        }
+        b2.put(new Circle());
+        Shape s1 = b1.get();
+        Shape s2 = b2.get();
+        s1.draw();
+        s2.draw();
+        last = s2;
+    }
+}
+
+class Box {
+
+    Shape content;
+
+    void put(Shape s) {
+        this.content = s;
+    }
+
+    Shape get() {
+        return content;
+    }
+}
+
+abstract class Shape {
+
+    abstract void draw();
+}
+
+class Circle extends Shape {
+
+    void draw() {
+    }
+}
+
+class Square extends Shape {
+
+    void draw() {
+        Snapshot.last = this;
+    }
+}
@@ -0,0 +1,70 @@
+class Cycles {
+
+    public static void main(String[] args) {
+        Shape a = new Circle();
+        Shape b = new Square();
+        Shape c = a;
+        for (int i = 0; i < 10; ++i) {
+            // a, t, c and b form a copy cycle
+            Shape t = a;
+            a = b;
+            b = c;
+            c = t;
+            t.draw();
+            b.self = a;
+            Shape u = c.self;
+            u.draw();
+            if (i > 5) {
+                b = new Square();
+                t = new Circle();
+            }
+        }
+        Box box = new Box();
+        box.put(a);
+        Shape d = box.get();
+        box.put(new Circle());
+        d = box.get();
+        d.draw();
+        Shape e = d;
+        d = e;
+        e.draw();
+    }
+}
+
+class Box {
+
+    Shape content;
+
+    void put(Shape s) {
+        Shape old = content;
+        content = s;
+        content = old;
+        content = s;
+    }
+
+    Shape get() {
+        return content;
+    }
+}
+
+abstract class Shape {
+
+    Shape self;
+
+    abstract void draw();
+}
+
+class Circle extends Shape {
+
+    void draw() {
+        self = this;
+    }
+}
+
+class Square extends Shape {
+
+    void draw() {
+        Shape s = self;
+        self = s;
+    }
+}
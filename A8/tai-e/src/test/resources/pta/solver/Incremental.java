@@ -0,0 +1,53 @@
+class Incremental {
+
+    static Object cache;
+
+    public static void main(String[] args) {
+        Item i1 = new Item();
+        Item i2 = new SpecialItem();
+        Holder h = new Holder();
+        h.item = i1;
+        cache = i2;
+        Picker picker = new Picker();
+        Item picked = picker.pick(i1, i2); // pick() is edited by the test
+        picked.use();
+        h.item = picked;
+        Object other = h.item;
+        log(other, cache);
+        helper();
+    }
+
+    static void helper() {
+        Picker picker = new Picker();
+        Item x = picker.pick(new Item(), new SpecialItem());
+        log(x, x);
+    }
+
+    static void log(Object o1, Object o2) {
+    }
+}
+
+class Picker {
+
+    Item pick(Item p1, Item p2) {
+        return p1;
+    }
+}
+
+class Item {
+
+    void use() {
+    }
+}
+
+class SpecialItem extends Item {
+
+    void use() {
+        Incremental.cache = new Object();
+    }
+}
+
+class Holder {
+
+    Item item;
+}
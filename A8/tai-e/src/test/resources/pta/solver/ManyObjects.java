@@ -0,0 +1,103 @@
+class ManyObjects {
+
+    public static void main(String[] args) {
+        // many allocations make rounds that are large enough to be
+        // processed in parallel
+        Node n0 = new Node(null);
+        Node n1 = new Node(n0);
+        Node n2 = new Node(n1);
+        Node n3 = new Node(n2);
+        Node n4 = new Node(n3);
+        Node n5 = new Node(n4);
+        Node n6 = new Node(n5);
+        Node n7 = new Node(n6);
+        Node n8 = new Node(n7);
+        Node n9 = new Node(n8);
+        Node n10 = new Node(n9);
+        Node n11 = new Node(n10);
+        Node n12 = new Node(n11);
+        Node n13 = new Node(n12);
+        Node n14 = new Node(n13);
+        Node n15 = new Node(n14);
+        Node n16 = new Node(n15);
+        Node n17 = new Node(n16);
+        Node n18 = new Node(n17);
+        Node n19 = new Node(n18);
+        Node n20 = new Node(n19);
+        Node n21 = new Node(n20);
+        Node n22 = new Node(n21);
+        Node n23 = new Node(n22);
+        Node n24 = new Node(n23);
+        Node n25 = new Node(n24);
+        Node n26 = new Node(n25);
+        Node n27 = new Node(n26);
+        Node n28 = new Node(n27);
+        Node n29 = new Node(n28);
+        Node n30 = new Node(n29);
+        Node n31 = new Node(n30);
+        Node n32 = new Node(n31);
+        Node n33 = new Node(n32);
+        Node n34 = new Node(n33);
+        Node n35 = new Node(n34);
+        Node n36 = new Node(n35);
+        Node n37 = new Node(n36);
+        Node n38 = new Node(n37);
+        Node n39 = new Node(n38);
+        Node n40 = new Node(n39);
+        Node n41 = new Node(n40);
+        Node n42 = new Node(n41);
+        Node n43 = new Node(n42);
+        Node n44 = new Node(n43);
+        Node n45 = new Node(n44);
+        Node n46 = new Node(n45);
+        Node n47 = new Node(n46);
+        Node n48 = new Node(n47);
+        Node n49 = new Node(n48);
+        Node n50 = new Node(n49);
+        Node n51 = new Node(n50);
+        Node n52 = new Node(n51);
+        Node n53 = new Node(n52);
+        Node n54 = new Node(n53);
+        Node n55 = new Node(n54);
+        Node n56 = new Node(n55);
+        Node n57 = new Node(n56);
+        Node n58 = new Node(n57);
+        Node n59 = new Node(n58);
+        Node n60 = new Node(n59);
+        Node n61 = new Node(n60);
+        Node n62 = new Node(n61);
+        Node n63 = new Node(n62);
+        Node n64 = new Node(n63);
+        Node n65 = new Node(n64);
+        Node n66 = new Node(n65);
+        Node n67 = new Node(n66);
+        Node n68 = new Node(n67);
+        Node n69 = new Node(n68);
+        Node n70 = new Node(n69);
+        Node n71 = new Node(n70);
+        Node n72 = new Node(n71);
+        Node n73 = new Node(n72);
+        Node n74 = new Node(n73);
+        Node n75 = new Node(n74);
+        Node n76 = new Node(n75);
+        Node n77 = new Node(n76);
+        Node n78 = new Node(n77);
+        Node n79 = new Node(n78);
+        Node last = n79;
+        while (last.next != null) {
+            last = last.next;
+        }
+        last.value = new Object();
+    }
+}
+
+class Node {
+
+    Node next;
+
+    Object value;
+
+    Node(Node next) {
+        this.next = next;
+    }
+}
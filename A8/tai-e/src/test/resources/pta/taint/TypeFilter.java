@@ -0,0 +1,34 @@
+class TypeFilter {
+
+    public static void main(String[] args) {
+        Box b1 = new Box();
+        b1.set(SourceSink.source());
+        b1.set(new Object());
+        String s1 = (String) b1.get(); // only the strings pass the cast
+        SourceSink.sink(s1);
+        log(s1);
+
+        Box b2 = new Box();
+        b2.set(new StringBuilder());
+        String s2 = (String) b2.get(); // nothing passes the cast under 1-obj
+        SourceSink.sink(s2);
+        log(s2);
+    }
+
+    static void log(String s) { // typed parameter
+        SourceSink.sink(s, 0);
+    }
+}
+
+class Box {
+
+    private Object value;
+
+    void set(Object value) {
+        this.value = value;
+    }
+
+    Object get() {
+        return value;
+    }
+}